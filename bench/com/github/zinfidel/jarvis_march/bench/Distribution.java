@@ -0,0 +1,103 @@
+package com.github.zinfidel.jarvis_march.bench;
+
+import com.github.zinfidel.jarvis_march.algorithm.PointGenerator;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+/**
+ * The point distributions benchmarks are run on, as PointGenerator generates
+ * them. They are seeded, so every run measures the very same clouds.
+ */
+public enum Distribution {
+
+    /** Uniform over a square: a small hull, O(log n) points. */
+    UNIFORM {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.random(xs, ys, BOUNDS, SEED);
+	}
+    },
+
+    /** Gaussian around the center of a square: an even smaller hull. */
+    GAUSSIAN {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.normalRandom(xs, ys, BOUNDS, SEED);
+	}
+    },
+
+    /**
+     * On a circle filling the square: (nearly) every point is a hull point,
+     * the worst case of Jarvis' march.
+     */
+    CIRCLE {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.circle(xs, ys, BOUNDS, SEED);
+	}
+    },
+
+    /** In a thin ring inside of the circle: a large share of hull points. */
+    NEAR_CIRCLE {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.nearCircle(xs, ys, BOUNDS, 0.01, SEED);
+	}
+    },
+
+    /** In a few tight clusters: a small hull over far-apart points. */
+    CLUSTERS {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.clusters(xs, ys, BOUNDS, 8, SEED);
+	}
+    },
+
+    /** On the edges and center lines of a square: long collinear edges. */
+    COLLINEAR {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.collinear(xs, ys, BOUNDS, SEED);
+	}
+    },
+
+    /** A thousand distinct points, repeated over and over. */
+    DUPLICATES {
+	@Override
+	void fill(int[] xs, int[] ys) {
+	    PointGenerator.duplicates(xs, ys, BOUNDS, 1000, SEED);
+	}
+    };
+
+    /** The size of the square the points are spread over. */
+    static final int SIZE = 1 << 30;
+
+    /** The bounds of the square. */
+    private static final Point BOUNDS = new Point(SIZE, SIZE);
+
+    /** The seed of every cloud. */
+    private static final long SEED = 42;
+
+
+    /** Fills the arrays with the points of the distribution. */
+    abstract void fill(int[] xs, int[] ys);
+
+
+    /**
+     * Generates a cloud. Repeats are possible, but very unlikely (except for
+     * the duplicate-heavy distribution).
+     *
+     * @param n The number of points.
+     * @return The points of the cloud, the same ones every time.
+     */
+    public Point[] generate(int n) {
+	int[] xs = new int[n];
+	int[] ys = new int[n];
+	fill(xs, ys);
+
+	Point[] points = new Point[n];
+	for (int i = 0; i < n; i++) {
+	    points[i] = new Point(xs[i], ys[i]);
+	}
+	return points;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.zinfidel.jarvis_march.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.github.zinfidel.jarvis_march.algorithm.PointGenerator;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+/**
+ * Generating random points: one at a time, and in bulk as the GUI does. The
+ * bulk benchmarks generate BULK points per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GeneratorBenchmark {
+
+    /** The bounds of the GUI's panel, roughly. */
+    private final Point bounds = new Point(640, 480);
+
+    /** The number of points generated by each bulk operation. */
+    private static final int BULK = 1 << 16;
+
+    // The arrays the bulk benchmarks fill.
+    private final int[] xs = new int[BULK];
+    private final int[] ys = new int[BULK];
+
+
+    /** PointGenerator.random(). */
+    @Benchmark
+    public Point random() {
+	return PointGenerator.random(bounds);
+    }
+
+
+    /** PointGenerator.normalRandom(). */
+    @Benchmark
+    public Point normalRandom() {
+	return PointGenerator.normalRandom(bounds);
+    }
+
+
+    /** PointGenerator.random(), in bulk. */
+    @Benchmark
+    public int[] randomBulk() {
+	PointGenerator.random(xs, ys, bounds, 42);
+	return xs;
+    }
+
+
+    /** PointGenerator.normalRandom(), in bulk. */
+    @Benchmark
+    public int[] normalRandomBulk() {
+	PointGenerator.normalRandom(xs, ys, bounds, 42);
+	return xs;
+    }
+}
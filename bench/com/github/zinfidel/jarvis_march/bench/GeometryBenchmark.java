@@ -0,0 +1,49 @@
+package com.github.zinfidel.jarvis_march.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/** The geometry primitives that iterate() runs for every candidate point. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GeometryBenchmark {
+
+    /** The number of points cycled through, so nothing is constant folded. */
+    private static final int POINTS = 1 << 10;
+
+    private Point[] points;
+    private Vector[] vectors;
+    private int i = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	points = Distribution.UNIFORM.generate(POINTS);
+	vectors = new Vector[POINTS];
+	for (int j = 0; j < POINTS; j++) {
+	    vectors[j] = new Vector(points[j], points[(j + 1) % POINTS]);
+	}
+    }
+
+
+    /** Vector construction, which works out the magnitude and angle. */
+    @Benchmark
+    public Vector newVector() {
+	i = (i + 1) & (POINTS - 1);
+	return new Vector(points[i], points[(i + 1) & (POINTS - 1)]);
+    }
+
+
+    /** The angle between two vectors. */
+    @Benchmark
+    public double angleTo() {
+	i = (i + 1) & (POINTS - 1);
+	return vectors[i].angleTo(vectors[(i + 1) & (POINTS - 1)]);
+    }
+}
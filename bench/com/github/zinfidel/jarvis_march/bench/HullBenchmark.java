@@ -0,0 +1,45 @@
+package com.github.zinfidel.jarvis_march.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.github.zinfidel.jarvis_march.algorithm.JarvisMarcher;
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Solving a hull all at once, by the number of points and their distribution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HullBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int n;
+
+    @Param({ "UNIFORM", "GAUSSIAN", "CIRCLE", "NEAR_CIRCLE", "CLUSTERS",
+	     "COLLINEAR", "DUPLICATES" })
+    public Distribution distribution;
+
+    /** The model to solve, rebuilt for every trial. */
+    private Model model;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	model = new Model();
+	for (Point point : distribution.generate(n)) {
+	    model.addPoint(point);
+	}
+    }
+
+
+    /** JarvisMarcher.solve(), on a new marcher so it starts over each time. */
+    @Benchmark
+    public ConvexHull solve() {
+	return new JarvisMarcher(model).solve();
+    }
+}
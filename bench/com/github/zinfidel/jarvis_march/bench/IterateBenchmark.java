@@ -0,0 +1,48 @@
+package com.github.zinfidel.jarvis_march.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.github.zinfidel.jarvis_march.algorithm.JarvisMarcher;
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Solving a hull step by step, as the GUI animates it. Every step looks at
+ * one point, so a hull takes n steps per hull point - which is why the clouds
+ * are smaller than those of HullBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IterateBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int n;
+
+    @Param({ "UNIFORM", "GAUSSIAN", "CIRCLE" })
+    public Distribution distribution;
+
+    /** The model to solve, rebuilt for every trial. */
+    private Model model;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	model = new Model();
+	for (Point point : distribution.generate(n)) {
+	    model.addPoint(point);
+	}
+    }
+
+
+    /** JarvisMarcher.iterate(), until the hull is closed. */
+    @Benchmark
+    public ConvexHull iterate() {
+	JarvisMarcher marcher = new JarvisMarcher(model);
+	while (marcher.iterate());
+	return model.getHull();
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.zinfidel.jarvis_march.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/** Filling a model, by the number of points and their distribution. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ModelBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int n;
+
+    @Param({ "UNIFORM", "GAUSSIAN", "CIRCLE" })
+    public Distribution distribution;
+
+    /** The points to add, generated once per trial. */
+    private Point[] points;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	points = distribution.generate(n);
+    }
+
+
+    /** Model.addPoint() for every point, into a new model. */
+    @Benchmark
+    public Model addPoint() {
+	Model model = new Model();
+	for (Point point : points) {
+	    model.addPoint(point);
+	}
+	return model;
+    }
+}
@@ -8,19 +8,28 @@ import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.NumberFormat;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFormattedTextField;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
 import javax.swing.text.NumberFormatter;
 import javax.swing.Timer;
 
 import com.github.zinfidel.jarvis_march.algorithm.*;
+import com.github.zinfidel.jarvis_march.geometry.ConvexHull;
 import com.github.zinfidel.jarvis_march.geometry.Model;
 import com.github.zinfidel.jarvis_march.geometry.Point;
 import com.github.zinfidel.jarvis_march.visualization.GeometryPanel;
@@ -37,12 +46,21 @@ public class JarvisMarch extends JFrame {
     private static final int width = 640;
     private static final int height = 480;
     
+    /** The most points that can be generated at once. */
+    private static final int MAX_POINTS = 9999999;
+    
+    /** The longest delay between auto-iterations, in milliseconds. */
+    private static final int MAX_DELAY = 9999;
+    
     /** The current Jarvis marcher. Do not set manually! Use setMarcher(). */
     private JarvisMarcher marcher = null;
     
-    private final Model model = new Model();
+    /** The model. Replaced as a whole when points are generated. */
+    private Model model = new Model();
     private GeometryPanel geoPanel;
     private JPanel controlsPanel;
+    private JButton cancelButton;
+    private JLabel statusLabel;
     
 
     /**
@@ -101,8 +119,9 @@ public class JarvisMarch extends JFrame {
 	JLabel lblNumberOfPoints = new JLabel("Number of Points:");
 	pnlControls.add(lblNumberOfPoints);
 
-	JFormattedTextField ftfPoints = new JFormattedTextField(getNumFormat());
-	ftfPoints.setColumns(4);
+	JFormattedTextField ftfPoints =
+		new JFormattedTextField(getNumFormat(MAX_POINTS));
+	ftfPoints.setColumns(7);
 	ftfPoints.setValue(new Integer(4));
 	pnlControls.add(ftfPoints);
 
@@ -112,9 +131,17 @@ public class JarvisMarch extends JFrame {
 
 	// Set up convex hull calculate button.
 	JButton btnCalculateCH = new JButton("Calculate CH");
-	btnCalculateCH.addActionListener(new CalculateCH());
+	CalculateCH calculateCH = new CalculateCH();
+	btnCalculateCH.addActionListener(calculateCH);
 	pnlControls.add(btnCalculateCH);
 
+	// Set up the cancel button, which is only enabled while solving.
+	JButton btnCancel = new JButton("Cancel");
+	btnCancel.addActionListener(calculateCH.new CancelCH());
+	btnCancel.setEnabled(false);
+	pnlControls.add(btnCancel);
+	cancelButton = btnCancel;
+
 	// Set up the iterate button.
 	JButton btnIterate = new JButton("Iterate");
 	pnlControls.add(btnIterate);
@@ -123,7 +150,8 @@ public class JarvisMarch extends JFrame {
 	JCheckBox chckbxAuto = new JCheckBox("Auto");
 	pnlControls.add(chckbxAuto);
 
-	JFormattedTextField ftfDelay = new JFormattedTextField(getNumFormat());
+	JFormattedTextField ftfDelay =
+		new JFormattedTextField(getNumFormat(MAX_DELAY));
 	ftfDelay.setColumns(4);
 	ftfDelay.setValue(new Integer(100));
 	pnlControls.add(ftfDelay);
@@ -131,9 +159,18 @@ public class JarvisMarch extends JFrame {
 	JLabel lblTimeUnits = new JLabel("ms");
 	pnlControls.add(lblTimeUnits);
 
+	// Set up the step box, which sets how far each iteration goes.
+	JComboBox<Step> cbxStep = new JComboBox<Step>(Step.values());
+	pnlControls.add(cbxStep);
+
 	// Add the iterate button's action listener.
 	btnIterate.addActionListener(
-		new IterativelyCalculateCH(chckbxAuto, ftfDelay));
+		new IterativelyCalculateCH(chckbxAuto, ftfDelay, cbxStep));
+
+	// Set up the status label, which reports on background solves.
+	JLabel lblStatus = new JLabel();
+	pnlControls.add(lblStatus);
+	statusLabel = lblStatus;
     }
 
 
@@ -145,6 +182,10 @@ public class JarvisMarch extends JFrame {
     /**
      * Generates points in the model and updates the visualization. The number
      * of points generated is retreived from the points formatted field.
+     * 
+     * Millions of points take a while, so they are generated into a new model
+     * on a background worker, which then replaces the model. That way the
+     * model being drawn is never modified from the worker.
      */
     private class GeneratePoints implements ActionListener {
 
@@ -157,43 +198,155 @@ public class JarvisMarch extends JFrame {
 
 	@Override
 	public void actionPerformed(ActionEvent arg0) {
-	    // Clear points, clear existing marchers, establish boundaries.
-	    model.clearPoints();
-	    marcher = null;
-	    Point bounds = new Point(geoPanel.getWidth(),
+	    // Establish boundaries, and a seed for a new cloud.
+	    final int n = (int) ftfPoints.getValue();
+	    final Point bounds = new Point(geoPanel.getWidth(),
 		    geoPanel.getHeight());
+	    final long seed = ThreadLocalRandom.current().nextLong();
 
-	    // Create the random points.
-	    for (int n = 0; n < (int) ftfPoints.getValue(); n++) {
-		model.addPoint(PointGenerator.normalRandom(bounds));
-	    }
+	    toggleControls(false);
+	    statusLabel.setText("Generating " + n + " points...");
 
-	    // Update the drawing.
-	    geoPanel.repaint();
+	    new SwingWorker<Model, Void>() {
+
+		@Override
+		protected Model doInBackground() {
+		    // Create the random points in bulk, then add them all.
+		    int[] xs = new int[n];
+		    int[] ys = new int[n];
+		    PointGenerator.normalRandom(xs, ys, bounds, seed);
+
+		    Model generated = new Model();
+		    generated.addPoints(xs, ys, n);
+		    return generated;
+		}
+
+		@Override
+		protected void done() {
+		    toggleControls(true);
+		    statusLabel.setText("");
+
+		    try {
+			// Replace the model, and clear the existing marcher.
+			model = get();
+			geoPanel.setModel(model);
+			setMarcher(null);
+		    } catch (ExecutionException ex) {
+			throw new IllegalStateException(ex.getCause());
+		    } catch (InterruptedException ex) {
+			// The worker is done, so get() does not wait.
+			Thread.currentThread().interrupt();
+		    }
+
+		    // Update the drawing.
+		    geoPanel.repaint();
+		}
+	    }.execute();
 	}
     }
 
 
     /**
-     * Runnable that solves the current problem in its entirety all at once.
+     * Actionlistener that solves the current problem in its entirety, on a
+     * background worker so that the GUI stays responsive. The problem is
+     * solved by a Jarvis marcher on the common pool, whatever the size of the
+     * cloud, so the hull is drawn as its points are found and the solve can
+     * always be cancelled. The other solvers can not do either.
      */
     private class CalculateCH implements ActionListener {
 
+	// The marcher of the running solve. Null when there is none.
+	private JarvisMarcher solving = null;
+
 	@Override
 	public void actionPerformed(ActionEvent e) {
-	    try {
-		// Initialize a marcher, solve the problem, then display it.
-		setMarcher(new JarvisMarcher(model));
-		marcher.solve();
-		geoPanel.repaint();
-
-	    } catch (DegenerateGeometryException ex) {
-		// Display an error dialog.
-		JOptionPane.showMessageDialog(
-			JarvisMarch.this,
-			ex.getMessage(),
-			"Degenerate Geometry",
-			JOptionPane.ERROR_MESSAGE);
+	    // There are no step-wise vectors to draw, so drop the marcher.
+	    setMarcher(null);
+
+	    // Draw the hull as it is found, rather than the model's hull,
+	    // which belongs to the worker until it is done.
+	    final ConvexHull preview = model.getCloud().isEmpty()
+		    ? null : new ConvexHull(model.getLeftmost());
+	    geoPanel.setHull(preview);
+
+	    // Set up the marcher before the worker starts, so that Cancel
+	    // works from the moment it is enabled.
+	    final JarvisMarcher marcher =
+		    new JarvisMarcher(model, ForkJoinPool.commonPool());
+	    solving = marcher;
+
+	    toggleControls(false);
+	    cancelButton.setEnabled(true);
+	    statusLabel.setText("Solving...");
+
+	    new SwingWorker<ConvexHull, Point>() {
+
+		@Override
+		protected ConvexHull doInBackground() {
+		    marcher.setVertexListener(point -> publish(point));
+		    return marcher.solve();
+		}
+
+		@Override
+		protected void process(List<Point> points) {
+		    for (Point point : points) {
+			preview.addPoint(point);
+		    }
+		    statusLabel.setText(
+			    "Hull points: " + preview.getPoints().size());
+		    geoPanel.repaint();
+		}
+
+		@Override
+		protected void done() {
+		    solving = null;
+		    geoPanel.setHull(null);
+		    toggleControls(true);
+		    cancelButton.setEnabled(false);
+
+		    try {
+			ConvexHull hull = get();
+			statusLabel.setText(
+				"Hull points: " + hull.getPoints().size());
+		    } catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof CancellationException) {
+			    statusLabel.setText("Cancelled");
+			} else if (cause instanceof DegenerateGeometryException) {
+			    statusLabel.setText("");
+
+			    // Display an error dialog.
+			    JOptionPane.showMessageDialog(
+				    JarvisMarch.this,
+				    cause.getMessage(),
+				    "Degenerate Geometry",
+				    JOptionPane.ERROR_MESSAGE);
+			} else {
+			    throw new IllegalStateException(cause);
+			}
+		    } catch (InterruptedException ex) {
+			// The solve is done, so get() does not wait.
+			Thread.currentThread().interrupt();
+		    }
+
+		    geoPanel.repaint();
+		}
+	    }.execute();
+	}
+
+
+	/**
+	 * Actionlistener that cancels the running solve, which is only enabled
+	 * while one runs. The marcher stops at its next step, and the
+	 * worker finishes as usual from there, so the controls only come back
+	 * once the model is left alone.
+	 */
+	private class CancelCH implements ActionListener {
+
+	    @Override
+	    public void actionPerformed(ActionEvent e) {
+		JarvisMarcher marcher = solving;
+		if (marcher != null) marcher.cancel();
 	    }
 	}
     }
@@ -205,17 +358,43 @@ public class JarvisMarch extends JFrame {
      */
     private class IterativelyCalculateCH implements ActionListener {
 	
-	// The "auto" checkbox and iteration delay field.
+	// The "auto" checkbox, iteration delay field and step box.
 	private JCheckBox autoChkBox = null;
 	private JFormattedTextField ftfDelay= null;
+	private JComboBox<Step> stepBox = null;
 	
 	// Used if the auto checkbox is ticked.
 	private Timer timer = null;
 
 	public IterativelyCalculateCH(JCheckBox autoChkBox,
-				      JFormattedTextField ftfDelay) {
+				      JFormattedTextField ftfDelay,
+				      JComboBox<Step> stepBox) {
 	    this.autoChkBox = autoChkBox;
 	    this.ftfDelay = ftfDelay;
+	    this.stepBox = stepBox;
+	}
+	
+	/**
+	 * Iterates as far as the selected step goes. Each step is followed by
+	 * a single repaint, so this is one frame of the animation.
+	 * 
+	 * @return false if iteration is done, true if there is more left.
+	 */
+	private boolean step() {
+	    // Leave the other half of the frame for painting.
+	    int delay = (Integer) ftfDelay.getValue();
+	    long budget = TimeUnit.MILLISECONDS.toNanos(delay) / 2;
+	    
+	    switch ((Step) stepBox.getSelectedItem()) {
+		case BUDGET:
+		    return marcher.iterate(budget, false);
+		case VERTEX:
+		    // A vertex that takes longer than the budget is found
+		    // over several frames, as the marcher keeps its place.
+		    return marcher.iterate(budget, true);
+		default:
+		    return marcher.iterate();
+	    }
 	}
 	
 	@Override
@@ -236,7 +415,7 @@ public class JarvisMarch extends JFrame {
 			// Iterate until the iterator returns false (done), then
 			// toggle the controls back on.
 			try {
-			    if (!marcher.iterate()) {
+			    if (!step()) {
 				timer.stop();
 				toggleControls(true);
 			    }
@@ -265,7 +444,7 @@ public class JarvisMarch extends JFrame {
 	    // Just iterate once.
 	    else {
 		try {
-		    marcher.iterate();
+		    step();
 		    geoPanel.repaint();
 		} catch (DegenerateGeometryException ex) {
 		    // Display an error dialog.
@@ -280,25 +459,55 @@ public class JarvisMarch extends JFrame {
     }
 
     
+    /** How far each iteration goes, one press of Iterate or one auto tick. */
+    private enum Step {
+	
+	/** A single iteration, which looks at a single candidate point. */
+	SINGLE("1 step"),
+	
+	/** As many iterations as fit in half of the delay. */
+	BUDGET("Time budget"),
+	
+	/**
+	 * Iterations until the next hull point is found, within the same
+	 * time as BUDGET.
+	 */
+	VERTEX("To vertex");
+	
+	/** The name of the step in the step box. */
+	private final String label;
+	
+	private Step(String label) {
+	    this.label = label;
+	}
+	
+	@Override
+	public String toString() {
+	    return label;
+	}
+    }
+
+    
     /*
      * Utility
      */
 
 
     /**
-     * Formatter for the integer fields that allows for 4 digits.
+     * Formatter for the integer fields that allows for values up to a maximum.
      * 
+     * @param maximum The largest value allowed.
      * @return The formatter.
      */
-    private NumberFormatter getNumFormat() {
-	// Integer format with 4 digits.
+    private NumberFormatter getNumFormat(int maximum) {
+	// Integer format with as many digits as the maximum.
 	NumberFormat format = NumberFormat.getIntegerInstance();
-	format.setMaximumIntegerDigits(4);
+	format.setMaximumIntegerDigits(Integer.toString(maximum).length());
 
 	// Formatter that produces integer values.
 	NumberFormatter formatter = new NumberFormatter(format);
 	formatter.setMinimum(3);
-	formatter.setMaximum(9999);
+	formatter.setMaximum(maximum);
 	formatter.setValueClass(Integer.class);
 
 	return formatter;
@@ -306,12 +515,15 @@ public class JarvisMarch extends JFrame {
 
     
     /**
-     * Toggles the enable state of all of the controls on the GUI.
+     * Toggles the enable state of all of the controls on the GUI, but for
+     * the Cancel button and the status, which follow the running solve.
      * 
      * @param state True to enable the controls, false to disable them.
      */
     private void toggleControls(boolean state) {
 	for(Component comp : controlsPanel.getComponents()) {
+	    // Cancel and the status belong to the running solve, if any.
+	    if (comp == cancelButton || comp == statusLabel) continue;
 	    comp.setEnabled(state);
 	}
     }
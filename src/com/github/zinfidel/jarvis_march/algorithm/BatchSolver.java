@@ -0,0 +1,172 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Solves the hulls of many independent point sets at once, e.g. one hull per
+ * tracked region. Each set gets a model of its own and is solved as a task on
+ * an executor, with a solver picked for it (see SolverSelector). The sets are
+ * solved on their own, so the solvers do not split them up any further.
+ *
+ * A set that fails to solve does not fail the batch: every set gets a result,
+ * which either holds its hull or the reason it has none - e.g. a
+ * DegenerateGeometryException for collinear points.
+ */
+public class BatchSolver {
+
+    /** The executor the sets are solved on. */
+    private final Executor executor;
+
+
+    /** Constructs a batch solver that solves on the common pool. */
+    public BatchSolver() {
+	this(ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Constructs a batch solver.
+     *
+     * @param executor The executor to solve on. It is not shut down.
+     * @throws IllegalArgumentException if the executor is null.
+     */
+    public BatchSolver(Executor executor) {
+	if (executor == null) throw new IllegalArgumentException(
+		"Executor can not be null.");
+
+	this.executor = executor;
+    }
+
+
+    /**
+     * Provides an executor that starts a new virtual thread for each task.
+     * Solving is pure computation, so virtual threads do not make it any
+     * faster than a pool with a thread per core. They do make it cheap to
+     * solve sets on the threads that gather them, if those block on I/O.
+     *
+     * Virtual threads need Java 21 or later. On older Javas this falls back
+     * to a cached thread pool, which also never makes a task wait for a free
+     * thread, but starts a platform thread for each task that finds none idle.
+     * Either way, the executor should be shut down by the caller when it is
+     * done with it.
+     *
+     * @return A new executor with a virtual thread per task, or a cached
+     * thread pool if the running Java does not have virtual threads.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+	// Looked up at run time, so that this still builds for older Javas.
+	try {
+	    Method factory = Executors.class.getMethod(
+		    "newVirtualThreadPerTaskExecutor");
+	    return (ExecutorService) factory.invoke(null);
+	} catch (ReflectiveOperationException e) {
+	    return Executors.newCachedThreadPool();
+	}
+    }
+
+
+    /**
+     * Solves the hulls of several point sets, and waits for all of them.
+     *
+     * @param pointSets The point sets to solve. Each one is a cloud of its
+     * own, so sets may share points. Repeated points within a set are fine.
+     * @return A result for each set, in the order of the sets.
+     * @throws InterruptedException if interrupted while waiting. Sets that are
+     * still being solved are not cancelled.
+     */
+    public List<Result> solveAll(Collection<? extends Collection<Point>> pointSets)
+	    throws InterruptedException {
+	List<FutureTask<Result>> tasks =
+		new ArrayList<FutureTask<Result>>(pointSets.size());
+
+	for (Collection<Point> points : pointSets) {
+	    FutureTask<Result> task = new FutureTask<Result>(() -> solve(points));
+	    tasks.add(task);
+	    executor.execute(task);
+	}
+
+	List<Result> results = new ArrayList<Result>(tasks.size());
+	for (FutureTask<Result> task : tasks) {
+	    try {
+		results.add(task.get());
+	    } catch (ExecutionException e) {
+		// Failures are results, so only errors (e.g. out of memory)
+		// should get here. Those are not for the caller to handle per
+		// set, and neither is anything else that gets past solve().
+		Throwable cause = e.getCause();
+		if (cause instanceof Error) throw (Error) cause;
+		if (cause instanceof RuntimeException) {
+		    throw (RuntimeException) cause;
+		}
+		throw new IllegalStateException(cause);
+	    }
+	}
+	return results;
+    }
+
+
+    /**
+     * Solves the hull of one point set.
+     *
+     * @return The set's result, failed or not.
+     */
+    private static Result solve(Collection<Point> points) {
+	try {
+	    Model model = new Model();
+	    for (Point point : points) {
+		model.addPoint(point);
+	    }
+
+	    return new Result(SolverSelector.select(model, 1).solve(), null);
+	} catch (RuntimeException e) {
+	    return new Result(null, e);
+	}
+    }
+
+
+    /** The outcome of solving one point set: its hull, or why it has none. */
+    public static class Result {
+
+	private final ConvexHull hull;
+	private final RuntimeException failure;
+
+	private Result(ConvexHull hull, RuntimeException failure) {
+	    this.hull = hull;
+	    this.failure = failure;
+	}
+
+
+	/** @return True if the set was solved. */
+	public boolean isSolved() {
+	    return failure == null;
+	}
+
+
+	/**
+	 * @return The solved hull of the set.
+	 * @throws RuntimeException the exception the set failed with, if it
+	 * failed, e.g. a DegenerateGeometryException.
+	 */
+	public ConvexHull getHull() {
+	    if (failure != null) throw failure;
+	    return hull;
+	}
+
+
+	/** @return The exception the set failed with, or null if solved. */
+	public RuntimeException getFailure() {
+	    return failure;
+	}
+    }
+}
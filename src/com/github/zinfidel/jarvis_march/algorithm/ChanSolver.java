@@ -0,0 +1,303 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.util.Arrays;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Solves the convex hull problem with Chan's algorithm, which is output
+ * sensitive: O(n log h) rather than the O(n h) of a plain Jarvis' March.
+ *
+ * The point cloud is split into groups of m points, and each group gets its
+ * own small hull (a mini-hull). The hull is then wrapped exactly like the
+ * Jarvis' March does it, except that each step only needs to look at the
+ * tangent point of every mini-hull, which is found by binary search. If the
+ * hull does not close within m steps, m was too small, and everything is
+ * started over with m squared.
+ *
+ * Points strictly inside the model's extremes (see Octagon) are filtered out
+ * first, as they can not be hull points.
+ *
+ * The solved hull is the same one JarvisMarcher finds: it starts at the
+ * model's left-most point, runs clockwise, and skips collinear points.
+ */
+public class ChanSolver implements HullSolver {
+
+    /** The smallest group size tried. */
+    private static final int MIN_GROUP_SIZE = 4;
+
+    /** Mini-hulls up to this size are searched linearly for tangents. */
+    private static final int LINEAR_TANGENT_SIZE = 8;
+
+    /** The model that the solver is operating on. */
+    private Model model = null;
+
+    /** Whether solve() records statistics, see setStatsEnabled(). */
+    private boolean statsEnabled = false;
+
+    /** The statistics of the last solve that recorded them. */
+    private SolverStats stats = null;
+
+
+    /** Constructs a solver for the given model. */
+    public ChanSolver(Model model) {
+	this.model = model;
+    }
+
+
+    /**
+     * Solves the convex hull problem for the model, and installs the new hull
+     * to the model.
+     *
+     * @return The solved convex hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    @Override
+    public ConvexHull solve() {
+	return SolveMonitor.run(this, model, statsEnabled, this::solve,
+				solved -> stats = solved);
+    }
+
+
+    /**
+     * Solves the convex hull problem, see solve().
+     *
+     * @param recorder Records the statistics of the solve, or null.
+     */
+    private ConvexHull solve(StatsRecorder recorder) {
+	// Only points outside of the extremes can be hull points.
+	PointCloud cloud = model.getCloud();
+	int[] xs = new int[cloud.size()];
+	int[] ys = new int[cloud.size()];
+	int n = model.getExtremes().filter(cloud, xs, ys);
+	if (recorder != null) recorder.filtered(n);
+
+	// The left-most point is an extreme, so it is never filtered out.
+	Point start = model.getLeftmost();
+	int startIndex = -1;
+	for (int i = 0; i < n && startIndex < 0; i++) {
+	    if (xs[i] == start.x && ys[i] == start.y) startIndex = i;
+	}
+	if (startIndex < 0) throw new DegenerateGeometryException(
+		"No valid point was found to add - probably degenerate geometry.");
+
+	// The mini-hull vertices, stored group by group, anti-clockwise. The
+	// monotone chain needs one spare slot past the last group.
+	int[] miniXs = new int[n + 1];
+	int[] miniYs = new int[n + 1];
+	long[] sorted = new long[n];
+
+	// The hull vertices, in order, without the repeated start point.
+	int[] hullXs = new int[n];
+	int[] hullYs = new int[n];
+	int hullSize = 0;
+
+	// Try growing group sizes until the hull closes within m steps.
+	boolean closed = false;
+	for (long m = Math.min(MIN_GROUP_SIZE, n); !closed; m = Math.min(m * m, n)) {
+	    int size = (int) Math.max(m, 1);
+	    int groups = (n + size - 1) / size;
+	    int[] miniSizes = new int[groups];
+
+	    // Build the mini-hull of each group.
+	    for (int g = 0; g < groups; g++) {
+		int from = g * size;
+		int to = Math.min(from + size, n);
+		for (int i = from; i < to; i++) {
+		    sorted[i] = PointCloud.pack(xs[i], ys[i]);
+		}
+		Arrays.sort(sorted, from, to);
+		miniSizes[g] = MonotoneChainSolver.chain(sorted, from, to,
+							miniXs, miniYs);
+	    }
+
+	    // The start point is the least point of its group, so it is the
+	    // first vertex of its group's mini-hull.
+	    int curGroup = startIndex / size;
+	    int curVertex = 0;
+
+	    // Wrap the hull for at most m steps.
+	    int px = start.x;
+	    int py = start.y;
+	    hullXs[0] = px;
+	    hullYs[0] = py;
+	    hullSize = 1;
+
+	    for (long step = 0; step < m && !closed; step++) {
+		long time = recorder != null ? System.nanoTime() : 0;
+		int bestGroup = -1;
+		int bestVertex = -1;
+		int bestX = 0;
+		int bestY = 0;
+
+		// The best point of each mini-hull is its tangent point, except
+		// for the group of the current point, where it is the point's
+		// neighbour (clockwise, which is anti-clockwise order backwards).
+		for (int g = 0; g < groups; g++) {
+		    int off = g * size;
+		    int k = miniSizes[g];
+		    int vertex;
+
+		    if (g == curGroup) {
+			if (k < 2) continue;
+			vertex = (curVertex + k - 1) % k;
+		    } else {
+			vertex = tangent(miniXs, miniYs, off, k, px, py);
+			if (vertex < 0) continue;
+		    }
+
+		    int x = miniXs[off + vertex];
+		    int y = miniYs[off + vertex];
+		    if (bestGroup < 0 ||
+			JarvisMarcher.isBetter(px, py, bestX, bestY, x, y)) {
+			bestGroup = g;
+			bestVertex = vertex;
+			bestX = x;
+			bestY = y;
+		    }
+		}
+
+		if (recorder != null)
+		    recorder.step(groups, System.nanoTime() - time);
+
+		if (bestGroup < 0) throw new DegenerateGeometryException(
+			"No valid point was found to add - probably degenerate geometry.");
+
+		// Close the hull when it returns to the start, otherwise step.
+		if (bestX == start.x && bestY == start.y) {
+		    closed = true;
+		} else {
+		    hullXs[hullSize] = bestX;
+		    hullYs[hullSize] = bestY;
+		    hullSize++;
+		    px = bestX;
+		    py = bestY;
+		    curGroup = bestGroup;
+		    curVertex = bestVertex;
+		}
+	    }
+
+	    if (!closed && recorder != null) recorder.round();
+	}
+
+	// Anything less than a triangle is not a hull - e.g. collinear points.
+	if (hullSize < 3) throw new DegenerateGeometryException(
+		"No valid point was found to add - probably degenerate geometry.");
+
+	// Build the hull from the vertices, and close it.
+	ConvexHull hull = model.newHull();
+	for (int i = 1; i < hullSize; i++) {
+	    hull.addPoint(new Point(hullXs[i], hullYs[i]));
+	}
+	hull.addPoint(start);
+
+	return hull;
+    }
+
+
+    @Override
+    public void setStatsEnabled(boolean enabled) {
+	statsEnabled = enabled;
+    }
+
+
+    @Override
+    public SolverStats getStats() {
+	return stats;
+    }
+
+
+    /**
+     * Finds the tangent point of a mini-hull, as seen from a point outside of
+     * it: the vertex that all other vertices are clockwise from (right of).
+     * If two vertices are collinear with the point, the farther one is the
+     * tangent point. This is the point a Jarvis' March would pick from the
+     * mini-hull, found in O(log k).
+     *
+     * The mini-hull is strictly convex and anti-clockwise, so as its vertices
+     * are walked, their direction from the point turns anti-clockwise along
+     * one chain up to the tangent point, then back. The binary search looks
+     * for the end of that chain.
+     *
+     * @param xs X-coordinates of the mini-hulls.
+     * @param ys Y-coordinates of the mini-hulls.
+     * @param off The index of the first vertex of the mini-hull.
+     * @param k The number of vertices in the mini-hull.
+     * @param px X-coordinate of the point.
+     * @param py Y-coordinate of the point.
+     * @return The index of the tangent point, relative to off, or -1 if the
+     * mini-hull has no vertices.
+     */
+    static int tangent(int[] xs, int[] ys, int off, int k, int px, int py) {
+
+	// Small mini-hulls are simply scanned.
+	if (k <= LINEAR_TANGENT_SIZE) {
+	    int best = -1;
+	    for (int i = 0; i < k; i++) {
+		int x = xs[off + i];
+		int y = ys[off + i];
+		if (x == px && y == py) continue;
+
+		if (best < 0 || JarvisMarcher.isBetter(px, py,
+			xs[off + best], ys[off + best], x, y)) best = i;
+	    }
+	    return best;
+	}
+
+	int x0 = xs[off];
+	int y0 = ys[off];
+	boolean rising = Orientation.orient(px, py, x0, y0,
+					    xs[off + 1], ys[off + 1]) > 0;
+
+	// Find the first vertex that is not before the tangent point. Vertex 0
+	// splits the walk, so comparing against it tells the chains apart.
+	int lo = 1;
+	int hi = k;
+	while (lo < hi) {
+	    int c = (lo + hi) >>> 1;
+	    int next = c + 1 == k ? 0 : c + 1;
+	    boolean turnsUp = Orientation.orient(px, py, xs[off + c],
+		    ys[off + c], xs[off + next], ys[off + next]) > 0;
+	    long fromStart = Orientation.orient(px, py, x0, y0,
+						xs[off + c], ys[off + c]);
+
+	    boolean before = rising ? turnsUp && fromStart > 0
+				    : turnsUp || fromStart < 0;
+	    if (before) {
+		lo = c + 1;
+	    } else {
+		hi = c;
+	    }
+	}
+
+	// A neighbour in the same direction wins if it is farther away.
+	int best = lo == k ? 0 : lo;
+	best = farther(xs, ys, off, best, best + 1 == k ? 0 : best + 1, px, py);
+	best = farther(xs, ys, off, best, best == 0 ? k - 1 : best - 1, px, py);
+	return best;
+    }
+
+
+    /**
+     * Picks one of two mini-hull vertices: the other vertex wins if it is in
+     * the same direction from the point as the vertex, but farther away.
+     *
+     * @return The index of the chosen vertex.
+     */
+    private static int farther(int[] xs, int[] ys, int off,
+			       int vertex, int other, int px, int py) {
+	int vx = xs[off + vertex];
+	int vy = ys[off + vertex];
+	int ox = xs[off + other];
+	int oy = ys[off + other];
+
+	if (Orientation.orient(px, py, vx, vy, ox, oy) == 0
+		&& Orientation.dot((long) vx - px, (long) vy - py,
+				   (long) ox - px, (long) oy - py) > 0
+		&& Orientation.distanceSq(px, py, ox, oy)
+		   > Orientation.distanceSq(px, py, vx, vy)) {
+	    return other;
+	}
+	return vertex;
+    }
+}
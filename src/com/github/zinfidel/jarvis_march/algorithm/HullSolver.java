@@ -0,0 +1,39 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import com.github.zinfidel.jarvis_march.geometry.ConvexHull;
+
+/**
+ * A convex hull algorithm. A solver is constructed for the model it solves,
+ * and solving installs the new hull to that model.
+ *
+ * All solvers produce the same hull: it starts at the model's left-most
+ * point, runs clockwise, and skips collinear points. Which solver is fastest
+ * depends on the point cloud (see SolverSelector).
+ */
+public interface HullSolver {
+
+    /**
+     * Solves the convex hull problem for the solver's model, and installs the
+     * new hull to the model.
+     *
+     * @return The solved convex hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    ConvexHull solve();
+
+
+    /**
+     * Turns the recording of statistics on or off for the following solves
+     * (see SolverStats). Recording is off by default, and costs nothing then.
+     *
+     * @param enabled True to record statistics.
+     */
+    void setStatsEnabled(boolean enabled);
+
+
+    /**
+     * @return The statistics of the last solve that recorded them, failed or
+     * not, or null if there was none.
+     */
+    SolverStats getStats();
+}
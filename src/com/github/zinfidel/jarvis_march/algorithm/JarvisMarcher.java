@@ -1,6 +1,10 @@
 package com.github.zinfidel.jarvis_march.algorithm;
 
 import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 import com.github.zinfidel.jarvis_march.geometry.*;
 
@@ -16,14 +20,34 @@ import com.github.zinfidel.jarvis_march.geometry.*;
  * used internally, but also are used in rendering. This object, when used
  * in conjunction with the JarvisMarch main panel, should always install itself
  * to the geometry panel so it can be used for drawing objects.
+ *
+ * Candidates are compared with exact integer orientation tests (see
+ * {@link Orientation}) rather than angles, so no trigonometry is involved in
+ * picking points and collinear points are handled deterministically.
  */
-public class JarvisMarcher {
+public class JarvisMarcher implements HullSolver {
+    
+    /**
+     * The number of points below which solve() always scans sequentially,
+     * even with a pool. Below this, splitting the scan costs more than it
+     * saves.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /** The number of iterations between checks of a time budget. */
+    private static final int BUDGET_CHECK_INTERVAL = 32;
+
+    /** The number of points each parallel scan task handles on its own. */
+    private static final int PARALLEL_CHUNK = 1 << 13;
     
     /** The model that the marcher is currently operating on. */
     private Model model = null;
       
     /** The convex hull that the marcher is currently constructing. */
     private ConvexHull hull = null;
+
+    /** The pool to split scans across in solve(). Null to solve sequentially. */
+    private ForkJoinPool pool = null;
     
     /**
      * Iterates over the set of points in the model in between invocations
@@ -35,20 +59,33 @@ public class JarvisMarcher {
     /** The best proposed next point. Null means there is no best point. */
     private Point bestPoint = null;
 
-    /** The vector pointing to the best point. Null means there is no vector.*/
+    /**
+     * The vector pointing to the best point. Null means there is no vector,
+     * or that it has not been asked for yet (see getBestVector()).
+     */
     private Vector bestVector = null;
-    
-    /** The angle between the best vector and current last vector. */
-    private Angle bestAngle = null;
 
     /** The next point being considered as the best point. */
     private Point nextPoint = null;
 
-    /** The vector pointing to the next point being considered as best point. */
+    /**
+     * The vector pointing to the next point being considered as best point.
+     * Null means there is no vector, or that it has not been asked for yet
+     * (see getNextVector()).
+     */
     private Vector nextVector = null;
     
-    /** The angle between the next vector and current last vector. */
-    private Angle nextAngle = null;
+    /** Whether solve() records statistics, see setStatsEnabled(). */
+    private boolean statsEnabled = false;
+
+    /** The statistics of the last solve that recorded them. */
+    private SolverStats stats = null;
+    
+    /** Set by cancel(), to stop solve() at its next step. */
+    private volatile boolean cancelled = false;
+
+    /** Told about each hull point solve() finds, or null. */
+    private Consumer<Point> vertexListener = null;
     
     
     /** Constructs a marcher for the given model. */
@@ -57,25 +94,158 @@ public class JarvisMarcher {
     }
 
    
+    /**
+     * Constructs a marcher for the given model that solves in parallel. Each
+     * step of solve() splits its scan for the best point across the pool,
+     * once the model has at least PARALLEL_THRESHOLD points. The step-wise
+     * iterate() is not affected.
+     * 
+     * @param model The model to solve.
+     * @param pool The pool to solve with, e.g. ForkJoinPool.commonPool().
+     */
+    public JarvisMarcher(Model model, ForkJoinPool pool) {
+	this.model = model;
+	this.pool = pool;
+    }
+
+   
     /**
      * Solves the convex hull problem for the model associated with this
      * JarvisMarch object. This can solve for a brand new convex hull or
      * for a partially completed hull.
      * 
+     * Unlike iterate(), this does not go through the step-wise state machine.
+     * Points strictly inside the model's extremes (see Octagon) are filtered
+     * out up front, as they can not be hull points. Each step of the march is
+     * then a plain scan over the remaining coordinates, so nothing is
+     * allocated per candidate point - only the points and edges added to the
+     * hull. Any state left behind by iterate() is discarded.
+     * 
+     * If the marcher has a pool, large models are scanned in parallel.
+     * 
+     * The solve can be stopped from another thread with cancel(), and tells
+     * the vertex listener (see setVertexListener()) about its progress.
+     * 
+     * @return The solved convex hull, which is installed to the model.
      * @throws DegenerateGeometryException if no valid best point can be found.
+     * @throws CancellationException if the solve was cancelled. The hull is
+     * left open, as far as it got, and solving again picks it up from there.
      * @see com.github.zinfidel.jarvis_march.algorithm.iterate
      */
-    public void solve() {
+    @Override
+    public ConvexHull solve() {
+	return SolveMonitor.run(this, model, statsEnabled, this::solve,
+				solved -> stats = solved);
+    }
+
 
-	// Iterate until we get false back, CH is solved then.
-	while (iterate());
+    /**
+     * Solves the convex hull problem, see solve().
+     *
+     * @param recorder Records the statistics of the solve, or null.
+     */
+    private ConvexHull solve(StatsRecorder recorder) {
+
+	// Set up the hull as iterate() would, bail out if already solved.
+	if (hull == null) {
+	    hull = model.newHull();
+	} else if (hull.isClosed()) {
+	    return hull;
+	}
+
+	// Clear any step-wise state, it does not apply to the hull anymore.
+	setNextPoint(null);
+	setBestPoint(null);
+	pointIterator = null;
+
+	// Scan the primitive coordinates of the possible hull points.
+	PointCloud cloud = model.getCloud();
+	int[] xs = new int[cloud.size()];
+	int[] ys = new int[cloud.size()];
+	int n = model.getExtremes().filter(cloud, xs, ys);
+	boolean parallel = pool != null && n >= PARALLEL_THRESHOLD;
+	if (recorder != null) recorder.filtered(n);
+
+	// March until the hull closes on itself.
+	while (!hull.isClosed()) {
+	    if (cancelled) {
+		cancelled = false;
+		throw new CancellationException("The solve was cancelled.");
+	    }
+
+	    Point curPoint = hull.getCurPoint();
+	    Point direction = hull.getCurVector().position;
+	    long time = recorder != null ? System.nanoTime() : 0;
+
+	    int best = parallel
+		    ? pool.invoke(new FindBestTask(xs, ys, 0, n,
+						   curPoint.x, curPoint.y,
+						   direction.x, direction.y))
+		    : findBest(xs, ys, 0, n, curPoint.x, curPoint.y,
+			       direction.x, direction.y);
+
+	    // iterate() would have made a point of every point in the cloud.
+	    if (recorder != null) {
+		recorder.step(n, System.nanoTime() - time);
+		recorder.avoided(cloud.size());
+	    }
+
+	    if (best < 0) throw new DegenerateGeometryException(
+		    "No valid point was found to add - probably degenerate geometry.");
+
+	    Point vertex = new Point(xs[best], ys[best]);
+	    hull.addPoint(vertex);
+	    if (vertexListener != null) vertexListener.accept(vertex);
+	}
+
+	return hull;
+    }
+
+
+    /**
+     * Scans a range of points for the best next point of the hull. This is
+     * the inner loop of the march, and only works on primitives.
+     * 
+     * @param xs X-coordinates of the points.
+     * @param ys Y-coordinates of the points.
+     * @param from Index of the first point to scan (inclusive).
+     * @param to Index of the last point to scan (exclusive).
+     * @param px X-coordinate of the current hull point.
+     * @param py Y-coordinate of the current hull point.
+     * @param dirX X-component of the current hull direction.
+     * @param dirY Y-component of the current hull direction.
+     * @return The index of the best point, or -1 if there is no valid point
+     * in the range.
+     */
+    static int findBest(int[] xs, int[] ys, int from, int to,
+			int px, int py, long dirX, long dirY) {
+	int best = -1;
+	int bestX = 0;
+	int bestY = 0;
+
+	for (int i = from; i < to; i++) {
+	    int x = xs[i];
+	    int y = ys[i];
+
+	    // Skip the current hull point and invalid turns.
+	    if (x == px && y == py) continue;
+	    if (!isCandidate(dirX, dirY, (long) x - px, (long) y - py)) continue;
+
+	    if (best < 0 || isBetter(px, py, bestX, bestY, x, y)) {
+		best = i;
+		bestX = x;
+		bestY = y;
+	    }
+	}
+
+	return best;
     }
 
 
     /**
      * Solves one atomic "unit" of the Jarvis' March algorithm on the current
-     * model. This can simply update the next-best point/vector/angle, update
-     * the current best point/vector/angle, or complete the convex hull and
+     * model. This can simply update the next-best point/vector, update
+     * the current best point/vector, or complete the convex hull and
      * close it.
      * 
      * @return false if there is more iteration to be done, true if finished.
@@ -98,27 +268,34 @@ public class JarvisMarcher {
 	// Set up a point iterator if need be.
 	if (pointIterator == null) pointIterator = model.getPoints().iterator();
 	
+	// Don't consider the current hull point - it can never be the next
+	// point, so skip past it rather than spending an iteration on it.
+	Point curPoint = hull.getCurPoint();
+	Point point = null;
+	while (point == null && pointIterator.hasNext()) {
+	    Point candidate = pointIterator.next();
+	    if (!candidate.equals(curPoint)) point = candidate;
+	}
+
 	/*
 	 * Deal with getting the next point. If there are points left, set up
 	 * as the next point and determine if it's the best. If there are no more
 	 * points left, add the point to the hull and perform clean-up/reset.
 	 */
-	if (pointIterator.hasNext()) {
-	    Point point = pointIterator.next();
+	if (point != null) {
 
-	    // Don't consider the current hull point - can cause problems.
-	    // See Vector.angleTo() for more details on this.
-	    if (point != hull.getCurPoint()) {
+	    setNextPoint(point);
 
-		setNextPoint(point);
+	    // If the point is a valid turn from the current hull direction, and
+	    // its better than the current best point, set it as best.
+	    Point direction = hull.getCurVector().position;
+	    if (isCandidate(direction.x, direction.y,
+			    point.x - curPoint.x, point.y - curPoint.y)) {
 
-		// If the point's angle is valid (>= 180deg), and its better
-		// than the current best point's angle, set it as best.
-		if (nextAngle.angle >= Math.PI ) {
-
-		    if (bestPoint == null || nextAngle.angle < bestAngle.angle) {
-			setBestPoint(point);
-		    }
+		if (bestPoint == null || isBetter(curPoint.x, curPoint.y,
+						  bestPoint.x, bestPoint.y,
+						  point.x, point.y)) {
+		    setBestPoint(point);
 		}
 	    }
 	    
@@ -140,11 +317,143 @@ public class JarvisMarcher {
 	return hull.isClosed() ? false : true;
     }
 
+
     /**
-     * Sets the best proposed point for the next point in the hull.
-     * Automatically updates the best vector to point to it. Note that this
-     * accessor does not scrutinize the input, so stuff like concurrent points
-     * will be accepted.
+     * Iterates (see iterate()) for as long as a time budget allows, e.g. the
+     * time left of an animation frame. So animating a march takes as many
+     * frames as its length in time allows, rather than one per candidate
+     * point.
+     * 
+     * @param budgetNanos The time to iterate for, in nanoseconds. The clock
+     * is only checked every few iterations, so a few are done however short
+     * the budget is.
+     * @param toVertex True to stop early, as soon as a point is added to the
+     * hull.
+     * @return false if iteration is done, true if there is more left to do.
+     * @throws DegenerateGeometryException if no valid best point can be found.
+     */
+    public boolean iterate(long budgetNanos, boolean toVertex) {
+	long start = System.nanoTime();
+	int iterations = 0;
+
+	while (iterate()) {
+	    // A point was added if the march started over on the cloud.
+	    if (toVertex && pointIterator == null) return true;
+
+	    // Only check the clock every so often, it is not free either.
+	    if (++iterations % BUDGET_CHECK_INTERVAL == 0
+		    && System.nanoTime() - start >= budgetNanos) return true;
+	}
+	return false;
+    }
+
+
+    /**
+     * Fork/join version of findBest(). The range is split in halves until the
+     * pieces are small enough to scan directly, and the best points of the
+     * halves are then compared to each other. Since isBetter() is a strict
+     * ordering of the valid candidates, the result is the same point the
+     * sequential scan finds.
+     */
+    private static class FindBestTask extends RecursiveTask<Integer> {
+
+	private static final long serialVersionUID = 6402437011574298318L;
+
+	// The range to scan, and the hull point and direction to scan from.
+	private final int[] xs;
+	private final int[] ys;
+	private final int from;
+	private final int to;
+	private final int px;
+	private final int py;
+	private final long dirX;
+	private final long dirY;
+
+	public FindBestTask(int[] xs, int[] ys, int from, int to,
+			    int px, int py, long dirX, long dirY) {
+	    this.xs = xs;
+	    this.ys = ys;
+	    this.from = from;
+	    this.to = to;
+	    this.px = px;
+	    this.py = py;
+	    this.dirX = dirX;
+	    this.dirY = dirY;
+	}
+
+	@Override
+	protected Integer compute() {
+	    if (to - from <= PARALLEL_CHUNK)
+		return findBest(xs, ys, from, to, px, py, dirX, dirY);
+
+	    // Scan the lower half in another task, and the upper half here.
+	    int mid = (from + to) >>> 1;
+	    FindBestTask lower = new FindBestTask(xs, ys, from, mid,
+						  px, py, dirX, dirY);
+	    lower.fork();
+	    int upperBest = new FindBestTask(xs, ys, mid, to,
+					     px, py, dirX, dirY).compute();
+	    int lowerBest = lower.join();
+
+	    // Combine the two halves.
+	    if (lowerBest < 0) return upperBest;
+	    if (upperBest < 0) return lowerBest;
+	    return isBetter(px, py, xs[lowerBest], ys[lowerBest],
+			    xs[upperBest], ys[upperBest])
+		    ? upperBest : lowerBest;
+	}
+    }
+
+
+    /**
+     * Determines whether a point can be the next point of the hull at all.
+     * The hull is wrapped clockwise, so a candidate must lie straight ahead
+     * of the current hull direction, or turn clockwise from it by less than
+     * 180 degrees.
+     *
+     * @param dirX X-component of the current hull direction.
+     * @param dirY Y-component of the current hull direction.
+     * @param vecX X-component of the vector to the candidate point.
+     * @param vecY Y-component of the vector to the candidate point.
+     * @return True if the candidate point may be the next hull point.
+     */
+    static boolean isCandidate(long dirX, long dirY, long vecX, long vecY) {
+	long turn = Orientation.cross(dirX, dirY, vecX, vecY);
+	if (turn != 0) return turn < 0;
+
+	// Parallel to the current direction - only valid if straight ahead.
+	return Orientation.dot(dirX, dirY, vecX, vecY) > 0;
+    }
+
+
+    /**
+     * Determines whether the point (cx, cy) is a better next hull point than
+     * the current best point (bx, by), as seen from the current hull point
+     * (px, py). The better point is the one that turns the least clockwise,
+     * which is the sign of a single cross product. If both are collinear with
+     * the hull point, the farther one wins, so points lying along a hull edge
+     * are skipped.
+     *
+     * Both points must be valid candidates (see isCandidate()), otherwise the
+     * comparison is meaningless.
+     *
+     * @return True if (cx, cy) should replace (bx, by) as the best point.
+     */
+    static boolean isBetter(int px, int py, int bx, int by, int cx, int cy) {
+	long turn = Orientation.orient(px, py, bx, by, cx, cy);
+	if (turn != 0) return turn > 0;
+
+	return Orientation.distanceSq(px, py, cx, cy)
+		> Orientation.distanceSq(px, py, bx, by);
+    }
+
+
+    /**
+     * Sets the best proposed point for the next point in the hull. The best
+     * vector pointing to it is built lazily by getBestVector(), so picking
+     * points never pays for a vector (and its trigonometry) unless something
+     * actually draws it. Note that this accessor does not scrutinize the
+     * input, so stuff like concurrent points will be accepted.
      * 
      * Passing null to this method will "erase" the best point and vector.
      * 
@@ -152,18 +461,7 @@ public class JarvisMarcher {
      */
     private void setBestPoint(Point point) {
 	bestPoint = point;
-	Point curPoint = hull.getCurPoint();
-	Vector curVector = hull.getCurVector();
-
-	// Calculate the new best vector, or set to null if point is null.
-	bestVector = point == null ? null :
-	    new Vector(curPoint, bestPoint);
-	
-	// Calculate the new angle, or set to null if point is null.
-	bestAngle = point == null ? null :
-	    new Angle(bestVector.angleTo(curVector),
-		      bestVector.angle,
-		      curPoint);
+	bestVector = null;
     }
     
     /** @return The current best point. */
@@ -173,15 +471,18 @@ public class JarvisMarcher {
        
     /** @return The current best vector. */
     public Vector getBestVector() {
+	if (bestVector == null && bestPoint != null)
+	    bestVector = new Vector(hull.getCurPoint(), bestPoint);
+
 	return bestVector;
     }
   
     
     /**
-     * Sets the point being considered for the next point in the hull.
-     * Automatically updates the next vector to point to it. Note that this
-     * accessor does not scrutinize the input, so stuff like concurrent points
-     * will be accepted.
+     * Sets the point being considered for the next point in the hull. Like
+     * the best vector, the next vector is built lazily by getNextVector().
+     * Note that this accessor does not scrutinize the input, so stuff like
+     * concurrent points will be accepted.
      * 
      * Passing null to this method will "erase" the next point and vector.
      * 
@@ -189,18 +490,7 @@ public class JarvisMarcher {
      */
     private void setNextPoint(Point point) {
 	nextPoint = point;
-	Point curPoint = hull.getCurPoint();
-	Vector curVector = hull.getCurVector();
-
-	// Calculate the new vector, or set to null if point is null.
-	nextVector = point == null ? null :
-	    new Vector(curPoint, nextPoint);
-	
-	// Calculate the new angle, or set to null if point is null.
-	nextAngle = point == null ? null :
-	    new Angle(nextVector.angleTo(curVector),
-		      nextVector.angle,
-		      curPoint);
+	nextVector = null;
     }
 
 
@@ -212,6 +502,41 @@ public class JarvisMarcher {
 
     /** @return The current vector being considered for best vector. */
     public Vector getNextVector() {
+	if (nextVector == null && nextPoint != null)
+	    nextVector = new Vector(hull.getCurPoint(), nextPoint);
+
 	return nextVector;
     }
+
+    /**
+     * Stops a running solve() at its next step, from any thread. If no solve
+     * is running, the next one stops right away.
+     */
+    public void cancel() {
+	cancelled = true;
+    }
+
+
+    /**
+     * Sets a listener that solve() tells about each hull point it finds, in
+     * order, as soon as it is found. The last one is the start point again,
+     * which closes the hull. The listener is called on the solving thread.
+     * 
+     * @param listener The listener, or null for none.
+     */
+    public void setVertexListener(Consumer<Point> listener) {
+	vertexListener = listener;
+    }
+
+
+    @Override
+    public void setStatsEnabled(boolean enabled) {
+	statsEnabled = enabled;
+    }
+
+
+    @Override
+    public SolverStats getStats() {
+	return stats;
+    }
 }
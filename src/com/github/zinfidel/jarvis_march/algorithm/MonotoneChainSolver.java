@@ -0,0 +1,160 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.util.Arrays;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Solves the convex hull problem with Andrew's monotone chain algorithm. The
+ * points are sorted by x (then y), after which the lower and upper halves of
+ * the hull each take one linear pass. That is O(n log n) no matter how many
+ * points end up on the hull, so unlike the Jarvis' March it does not turn
+ * quadratic when every point is a hull point.
+ *
+ * Points strictly inside the model's extremes (see Octagon) are filtered out
+ * before sorting. The rest are sorted as packed longs (see PointCloud.pack())
+ * with Arrays.parallelSort(), which splits large sorts across the common pool.
+ *
+ * The solved hull is the same one JarvisMarcher finds: it starts at the
+ * model's left-most point, runs clockwise, and skips collinear points.
+ */
+public class MonotoneChainSolver implements HullSolver {
+
+    /** The model that the solver is operating on. */
+    private Model model = null;
+
+    /** Whether solve() records statistics, see setStatsEnabled(). */
+    private boolean statsEnabled = false;
+
+    /** The statistics of the last solve that recorded them. */
+    private SolverStats stats = null;
+
+
+    /** Constructs a solver for the given model. */
+    public MonotoneChainSolver(Model model) {
+	this.model = model;
+    }
+
+
+    /**
+     * Solves the convex hull problem for the model, and installs the new hull
+     * to the model.
+     *
+     * @return The solved convex hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    @Override
+    public ConvexHull solve() {
+	return SolveMonitor.run(this, model, statsEnabled, this::solve,
+				solved -> stats = solved);
+    }
+
+
+    /**
+     * Solves the convex hull problem, see solve().
+     *
+     * @param recorder Records the statistics of the solve, or null.
+     */
+    private ConvexHull solve(StatsRecorder recorder) {
+	// Only points outside of the extremes can be hull points.
+	PointCloud cloud = model.getCloud();
+	int[] xs = new int[cloud.size()];
+	int[] ys = new int[cloud.size()];
+	int n = model.getExtremes().filter(cloud, xs, ys);
+	if (recorder != null) recorder.filtered(n);
+	long time = recorder != null ? System.nanoTime() : 0;
+
+	// Pack and sort the points.
+	long[] sorted = new long[n];
+	for (int i = 0; i < n; i++) {
+	    sorted[i] = PointCloud.pack(xs[i], ys[i]);
+	}
+	Arrays.parallelSort(sorted);
+
+	int[] hullXs = new int[n + 1];
+	int[] hullYs = new int[n + 1];
+	int k = chain(sorted, 0, n, hullXs, hullYs);
+	if (recorder != null) recorder.step(n, System.nanoTime() - time);
+
+	// Anything less than a triangle is not a hull - e.g. collinear points.
+	if (k < 3) throw new DegenerateGeometryException(
+		"No valid point was found to add - probably degenerate geometry.");
+
+	// The chain starts at the left-most point and runs anti-clockwise, so
+	// walk it backwards from there, and close the hull.
+	ConvexHull hull = model.newHull();
+	for (int i = k - 1; i > 0; i--) {
+	    hull.addPoint(new Point(hullXs[i], hullYs[i]));
+	}
+	hull.addPoint(model.getLeftmost());
+
+	return hull;
+    }
+
+
+    @Override
+    public void setStatsEnabled(boolean enabled) {
+	statsEnabled = enabled;
+    }
+
+
+    @Override
+    public SolverStats getStats() {
+	return stats;
+    }
+
+
+    /**
+     * Builds the convex hull of a range of sorted points with the monotone
+     * chain. Collinear points are left out. Both ChanSolver (for its
+     * mini-hulls) and solve() use this.
+     *
+     * @param sorted Packed points (see PointCloud.pack()), sorted ascending.
+     * @param from Index of the first point of the range (inclusive).
+     * @param to Index of the last point of the range (exclusive).
+     * @param hullXs Receives the x-coordinates of the hull from index from.
+     * One slot past index to may be overwritten while the hull is built.
+     * @param hullYs Receives the y-coordinates of the hull from index from.
+     * @return The number of hull vertices, which are anti-clockwise.
+     */
+    static int chain(long[] sorted, int from, int to,
+		     int[] hullXs, int[] hullYs) {
+	int n = to - from;
+	if (n < 3) {
+	    for (int i = 0; i < n; i++) {
+		hullXs[from + i] = PointCloud.unpackX(sorted[from + i]);
+		hullYs[from + i] = PointCloud.unpackY(sorted[from + i]);
+	    }
+	    return n;
+	}
+
+	// Lower chain left to right, then upper chain right to left. The chain
+	// ends on the first point again, so it may need one slot more than the
+	// range has points.
+	int k = 0;
+	for (int pass = 0; pass < 2; pass++) {
+	    int floor = k + 1;
+	    int first = pass == 0 ? 0 : n - 2;
+	    int last = pass == 0 ? n : -1;
+	    int inc = pass == 0 ? 1 : -1;
+
+	    for (int i = first; i != last; i += inc) {
+		int x = PointCloud.unpackX(sorted[from + i]);
+		int y = PointCloud.unpackY(sorted[from + i]);
+
+		// Pop points that do not make an anti-clockwise turn.
+		while (k >= Math.max(floor, 2) && Orientation.orient(
+			hullXs[from + k - 2], hullYs[from + k - 2],
+			hullXs[from + k - 1], hullYs[from + k - 1], x, y) <= 0) {
+		    k--;
+		}
+		hullXs[from + k] = x;
+		hullYs[from + k] = y;
+		k++;
+	    }
+	}
+
+	// The last point is the first point again.
+	return k - 1;
+    }
+}
@@ -1,17 +1,32 @@
 package com.github.zinfidel.jarvis_march.algorithm;
 
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 import com.github.zinfidel.jarvis_march.geometry.Point;
 
 /**
  * Contains methods for randomly generating points.
+ * 
+ * Besides generating one point at a time, the distributions above can fill
+ * arrays of coordinates in bulk. So can the adversarial ones, which are only
+ * generated in bulk: they stress solvers with big hulls, collinear points
+ * and duplicates, which the others hardly ever produce.
+ * 
+ * Bulk generation is seeded and runs in parallel:
+ * the arrays are cut into blocks, and each block gets a random stream of its
+ * own, split off of the seed. So the same seed always generates the same
+ * points, however many threads there are.
  */
 public class PointGenerator {
     
     /** Sigma value to use when generating gaussian values. */
     private static final double SIGMA = 3d;
     
+    /** The number of points generated as one task when generating in bulk. */
+    private static final int BLOCK_SIZE = 1 << 14;
+    
     /** The pseudo-random number generator for this class. */
     private static final Random RNG = new Random();
     
@@ -64,4 +79,258 @@ public class PointGenerator {
 	return new Point((int) x, (int) y);
     }
    
+    
+    /**
+     * Fills arrays with uniformly distributed random points, as random()
+     * generates them.
+     * 
+     * @param xs The array to fill with x-coordinates.
+     * @param ys The array to fill with y-coordinates.
+     * @param bounds The upper-right bounds on the points to generate.
+     * @param seed The seed of the points. The same seed generates the same
+     * points.
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    public static void random(int[] xs, int[] ys, Point bounds, long seed) {
+	int width = bounds.x;
+	int height = bounds.y;
+	
+	generate(xs, ys, seed, (rng, i) -> {
+	    xs[i] = rng.nextInt(width);
+	    ys[i] = rng.nextInt(height);
+	});
+    }
+    
+    
+    /**
+     * Fills arrays with normally distributed points, as normalRandom()
+     * generates them.
+     * 
+     * @see #random(int[], int[], Point, long)
+     */
+    public static void normalRandom(int[] xs, int[] ys, Point bounds,
+				    long seed) {
+	double halfBoundsX = (double) bounds.x / 2d;
+	double halfBoundsY = (double) bounds.y / 2d;
+	
+	generate(xs, ys, seed, (rng, i) -> {
+	    double x = -5d;
+	    double y = -5d;
+	    
+	    // Gaussian random variable in range [-SIGMA, SIGMA].
+	    while (x <= -SIGMA || x >= SIGMA)
+		x = gaussian(rng);
+		
+	    while (y <= -SIGMA || y >= SIGMA)
+		y = gaussian(rng);
+	    
+	    // Normalize, scale and translate to quadrant I, as above.
+	    xs[i] = (int) ((x / SIGMA) * halfBoundsX + halfBoundsX);
+	    ys[i] = (int) ((y / SIGMA) * halfBoundsY + halfBoundsY);
+	});
+    }
+    
+    
+    /**
+     * Fills arrays with points on a circle, the worst case of Jarvis' march:
+     * every point is a hull point. The circle is as large as fits in the
+     * bounds. Points are rounded to the grid, though, so once the circle is
+     * crowded with points, a few of them fall just inside of the hull.
+     * 
+     * @see #random(int[], int[], Point, long)
+     */
+    public static void circle(int[] xs, int[] ys, Point bounds, long seed) {
+	nearCircle(xs, ys, bounds, 0d, seed);
+    }
+    
+    
+    /**
+     * Fills arrays with points in a ring just inside of a circle, as circle()
+     * places it. The thinner the ring, the larger the share of points on the
+     * hull.
+     * 
+     * @param thickness The thickness of the ring, as a fraction of the
+     * radius: 0 for a circle, 1 for a disc.
+     * @throws IllegalArgumentException if the thickness is not in [0, 1], or
+     * the arrays differ in length.
+     * @see #random(int[], int[], Point, long)
+     */
+    public static void nearCircle(int[] xs, int[] ys, Point bounds,
+				  double thickness, long seed) {
+	if (!(thickness >= 0d && thickness <= 1d))
+	    throw new IllegalArgumentException(
+		    "Thickness must be between 0 and 1.");
+	
+	// Centered in the bounds, with the points rounded within them.
+	double centerX = (bounds.x - 1) / 2d;
+	double centerY = (bounds.y - 1) / 2d;
+	double radius = Math.min(centerX, centerY);
+	
+	generate(xs, ys, seed, (rng, i) -> {
+	    double theta = rng.nextDouble(2d * Math.PI);
+	    double r = thickness == 0d
+		    ? radius : radius * (1d - thickness * rng.nextDouble());
+	    xs[i] = (int) Math.round(centerX + r * Math.cos(theta));
+	    ys[i] = (int) Math.round(centerY + r * Math.sin(theta));
+	});
+    }
+    
+    
+    /**
+     * Fills arrays with points in gaussian blobs around cluster centers,
+     * which are spread uniformly over the bounds. Each blob's sigma is 1/32
+     * of the smaller bound, so the hull runs along a few far-apart clusters.
+     * 
+     * @param clusters The number of clusters.
+     * @throws IllegalArgumentException if there are no clusters, or the
+     * arrays differ in length.
+     * @see #random(int[], int[], Point, long)
+     */
+    public static void clusters(int[] xs, int[] ys, Point bounds,
+				int clusters, long seed) {
+	if (clusters < 1) throw new IllegalArgumentException(
+		"There must be at least one cluster.");
+	
+	int[] centerXs = new int[clusters];
+	int[] centerYs = new int[clusters];
+	random(centerXs, centerYs, bounds, seed);
+	double sigma = Math.min(bounds.x, bounds.y) / 32d;
+	
+	// Another stream than the centers', from the same seed.
+	generate(xs, ys, ~seed, (rng, i) -> {
+	    int c = rng.nextInt(clusters);
+	    long x;
+	    long y;
+	    
+	    // Points outside of the bounds are tried again.
+	    do {
+		x = Math.round(centerXs[c] + gaussian(rng) * sigma);
+		y = Math.round(centerYs[c] + gaussian(rng) * sigma);
+	    } while (x < 0 || x >= bounds.x || y < 0 || y >= bounds.y);
+	    
+	    xs[i] = (int) x;
+	    ys[i] = (int) y;
+	});
+    }
+    
+    
+    /**
+     * Fills arrays with heavily collinear points: every point lies on one of
+     * the edges of the bounds, or on one of the lines through their center
+     * along the axes. So the hull has four corners, and every edge of it
+     * runs through about a sixth of the points.
+     * 
+     * @see #random(int[], int[], Point, long)
+     */
+    public static void collinear(int[] xs, int[] ys, Point bounds,
+				 long seed) {
+	int maxX = bounds.x - 1;
+	int maxY = bounds.y - 1;
+	
+	generate(xs, ys, seed, (rng, i) -> {
+	    int x = rng.nextInt(bounds.x);
+	    int y = rng.nextInt(bounds.y);
+	    
+	    // Pin one coordinate to pick the line.
+	    switch (rng.nextInt(6)) {
+		case 0: x = 0; break;
+		case 1: x = maxX; break;
+		case 2: x = maxX / 2; break;
+		case 3: y = 0; break;
+		case 4: y = maxY; break;
+		default: y = maxY / 2; break;
+	    }
+	    
+	    xs[i] = x;
+	    ys[i] = y;
+	});
+    }
+    
+    
+    /**
+     * Fills arrays with duplicate-heavy points: each point is one of a few
+     * distinct points, which are spread uniformly over the bounds.
+     * 
+     * @param distinct The number of distinct points.
+     * @throws IllegalArgumentException if there are no distinct points, or
+     * the arrays differ in length.
+     * @see #random(int[], int[], Point, long)
+     */
+    public static void duplicates(int[] xs, int[] ys, Point bounds,
+				  int distinct, long seed) {
+	if (distinct < 1) throw new IllegalArgumentException(
+		"There must be at least one distinct point.");
+	
+	int[] poolXs = new int[distinct];
+	int[] poolYs = new int[distinct];
+	random(poolXs, poolYs, bounds, seed);
+	
+	// Another stream than the pool's, from the same seed.
+	generate(xs, ys, ~seed, (rng, i) -> {
+	    int p = rng.nextInt(distinct);
+	    xs[i] = poolXs[p];
+	    ys[i] = poolYs[p];
+	});
+    }
+    
+    
+    /**
+     * Fills arrays with points in parallel, a block at a time.
+     * 
+     * @param xs The array to fill with x-coordinates.
+     * @param ys The array to fill with y-coordinates.
+     * @param seed The seed of the random streams of the blocks.
+     * @param sampler Generates the point at an index of the arrays.
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    private static void generate(int[] xs, int[] ys, long seed,
+				 Sampler sampler) {
+	if (xs.length != ys.length) throw new IllegalArgumentException(
+		"Coordinate arrays must be the same length.");
+	
+	// Split the streams up front, so that each block gets the same one
+	// whichever thread generates it.
+	int blocks = (xs.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+	SplittableRandom seeds = new SplittableRandom(seed);
+	SplittableRandom[] rngs = new SplittableRandom[blocks];
+	for (int b = 0; b < blocks; b++) {
+	    rngs[b] = seeds.split();
+	}
+	
+	IntStream.range(0, blocks).parallel().forEach(b -> {
+	    SplittableRandom rng = rngs[b];
+	    int end = Math.min(xs.length, (b + 1) * BLOCK_SIZE);
+	    for (int i = b * BLOCK_SIZE; i < end; i++) {
+		sampler.sample(rng, i);
+	    }
+	});
+    }
+    
+    
+    /**
+     * Generates a standard gaussian value with Marsaglia's polar method, as
+     * SplittableRandom has no nextGaussian() of its own.
+     * 
+     * @param rng The random stream to use.
+     * @return The gaussian value.
+     */
+    private static double gaussian(SplittableRandom rng) {
+	double x;
+	double y;
+	double s;
+	do {
+	    x = rng.nextDouble(-1d, 1d);
+	    y = rng.nextDouble(-1d, 1d);
+	    s = x * x + y * y;
+	} while (s >= 1d || s == 0d);
+	
+	return x * Math.sqrt(-2d * Math.log(s) / s);
+    }
+    
+    
+    /** Generates the point at an index of the arrays being filled. */
+    private interface Sampler {
+	
+	void sample(SplittableRandom rng, int i);
+    }
 }
@@ -0,0 +1,349 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Solves the convex hull problem with QuickHull, split recursively across a
+ * fork/join pool.
+ *
+ * The line from the left-most to the right-most point splits the cloud in
+ * two sides. On each side, the point farthest from the line is a hull point,
+ * and every point inside the triangle it forms with the line is discarded.
+ * The two new edges of the triangle are then handled the same way, in
+ * parallel. For typical clouds (e.g. Gaussian ones), nearly all points are
+ * gone after the first few splits. Large scans are split across the pool as
+ * well, so even the first pass over the cloud uses every core. That first
+ * pass discards at least the points an Octagon filter would, so unlike the
+ * other solvers, this one does not filter the points beforehand.
+ *
+ * The solved hull is the same one JarvisMarcher finds: it starts at the
+ * model's left-most point, runs clockwise, and skips collinear points.
+ */
+public class QuickHullSolver implements HullSolver {
+
+    /** Sides and scans smaller than this are not split up any further. */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /** Returned by sides with no hull points. */
+    private static final int[] NONE = new int[0];
+
+    /** The model that the solver is operating on. */
+    private Model model = null;
+
+    /** The pool to solve with. */
+    private ForkJoinPool pool = null;
+
+    /** Whether solve() records statistics, see setStatsEnabled(). */
+    private boolean statsEnabled = false;
+
+    /** The statistics of the last solve that recorded them. */
+    private SolverStats stats = null;
+
+
+    /** Constructs a solver for the given model, using the common pool. */
+    public QuickHullSolver(Model model) {
+	this(model, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * Constructs a solver for the given model.
+     *
+     * @param model The model to solve.
+     * @param pool The pool to split the work across.
+     */
+    public QuickHullSolver(Model model, ForkJoinPool pool) {
+	this.model = model;
+	this.pool = pool;
+    }
+
+
+    /**
+     * Solves the convex hull problem for the model, and installs the new hull
+     * to the model.
+     *
+     * @return The solved convex hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    @Override
+    public ConvexHull solve() {
+	return SolveMonitor.run(this, model, statsEnabled, this::solve,
+				solved -> stats = solved);
+    }
+
+
+    /**
+     * Solves the convex hull problem, see solve().
+     *
+     * @param recorder Records the statistics of the solve, or null.
+     */
+    private ConvexHull solve(StatsRecorder recorder) {
+	PointCloud cloud = model.getCloud();
+	final int[] xs = cloud.getXs();
+	final int[] ys = cloud.getYs();
+	final int n = cloud.size();
+
+	// The left-most point is the least point, find the greatest as well.
+	Point start = model.getLeftmost();
+	final int left = cloud.indexOf(start.x, start.y);
+	int right = left;
+	long greatest = Long.MIN_VALUE;
+	for (int i = 0; i < n; i++) {
+	    long packed = PointCloud.pack(xs[i], ys[i]);
+	    if (packed > greatest) {
+		greatest = packed;
+		right = i;
+	    }
+	}
+
+	if (left < 0 || left == right) throw new DegenerateGeometryException(
+		"No valid point was found to add - probably degenerate geometry.");
+
+	// Solve both sides. Going clockwise, the upper side runs from left to
+	// right, and the lower one back.
+	final int finalRight = right;
+	int[][] sides = pool.invoke(new RecursiveTask<int[][]>() {
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected int[][] compute() {
+		SideTask lower = new SideTask(xs, ys, null, 0, n,
+					      finalRight, left, recorder);
+		lower.fork();
+		int[] upper = new SideTask(xs, ys, null, 0, n,
+					   left, finalRight, recorder).compute();
+		return new int[][] { upper, lower.join() };
+	    }
+	});
+
+	// Anything less than a triangle is not a hull - e.g. collinear points.
+	if (sides[0].length + sides[1].length == 0)
+	    throw new DegenerateGeometryException(
+		    "No valid point was found to add - probably degenerate geometry.");
+
+	ConvexHull hull = model.newHull();
+	for (int i : sides[0]) {
+	    hull.addPoint(new Point(xs[i], ys[i]));
+	}
+	hull.addPoint(new Point(xs[right], ys[right]));
+	for (int i : sides[1]) {
+	    hull.addPoint(new Point(xs[i], ys[i]));
+	}
+	hull.addPoint(start);
+
+	return hull;
+    }
+
+
+    @Override
+    public void setStatsEnabled(boolean enabled) {
+	statsEnabled = enabled;
+    }
+
+
+    @Override
+    public SolverStats getStats() {
+	return stats;
+    }
+
+
+    /**
+     * Finds the hull points on the outer side of an edge: the points strictly
+     * left of the line from a to b, in clockwise order from a to b.
+     */
+    private static class SideTask extends RecursiveTask<int[]> {
+
+	private static final long serialVersionUID = -1871434213434180785L;
+
+	// The points to consider, and the edge.
+	private final int[] xs;
+	private final int[] ys;
+	private final int[] indices;
+	private final int from;
+	private final int to;
+	private final int a;
+	private final int b;
+
+	/** Records the statistics of the solve, or null. */
+	private final StatsRecorder recorder;
+
+	/**
+	 * @param indices Indices of the points to consider, or null for all.
+	 * @param from First entry of indices (or point) to consider.
+	 * @param to Last entry of indices (or point) to consider, exclusive.
+	 * @param a Index of the point the edge starts at.
+	 * @param b Index of the point the edge ends at.
+	 * @param recorder Records each side as a step, or null.
+	 */
+	public SideTask(int[] xs, int[] ys, int[] indices, int from, int to,
+			int a, int b, StatsRecorder recorder) {
+	    this.xs = xs;
+	    this.ys = ys;
+	    this.indices = indices;
+	    this.from = from;
+	    this.to = to;
+	    this.a = a;
+	    this.b = b;
+	    this.recorder = recorder;
+	}
+
+	@Override
+	protected int[] compute() {
+	    Scan outside = new ScanTask(xs, ys, indices, from, to, a, b)
+		    .compute();
+	    if (recorder != null) recorder.step(to - from, 0);
+
+	    if (outside.count == 0) return NONE;
+	    if (outside.count == 1) return new int[] { outside.farthest };
+
+	    // The farthest point is on the hull, so recurse on both new edges.
+	    int c = outside.farthest;
+	    SideTask before = new SideTask(xs, ys, outside.indices, 0,
+					   outside.count, a, c, recorder);
+	    SideTask after = new SideTask(xs, ys, outside.indices, 0,
+					  outside.count, c, b, recorder);
+
+	    int[] beforeHull;
+	    int[] afterHull;
+	    if (outside.count < SEQUENTIAL_THRESHOLD) {
+		beforeHull = before.compute();
+		afterHull = after.compute();
+	    } else {
+		after.fork();
+		beforeHull = before.compute();
+		afterHull = after.join();
+	    }
+
+	    // Stitch the hull points together in order.
+	    int[] hull = Arrays.copyOf(beforeHull,
+				       beforeHull.length + 1 + afterHull.length);
+	    hull[beforeHull.length] = c;
+	    System.arraycopy(afterHull, 0, hull, beforeHull.length + 1,
+			     afterHull.length);
+	    return hull;
+	}
+    }
+
+
+    /** The result of scanning points against an edge. */
+    private static class Scan {
+
+	/** Indices of the points strictly outside of the edge. */
+	int[] indices;
+
+	/** The number of indices. */
+	int count;
+
+	/** Index of the farthest point from the edge, or -1 if none. */
+	int farthest = -1;
+
+	/** Distance of the farthest point, as an orientation value. */
+	long distance;
+
+	/** Position of the farthest point along the edge, as a dot product. */
+	long along;
+
+	/**
+	 * Makes another point the farthest if it is farther from the edge, or
+	 * just as far but farther along it. Of several equally far points, the
+	 * last along the edge is a true hull corner, unlike the ones between.
+	 */
+	void offer(int index, long distance, long along) {
+	    if (farthest < 0 || distance > this.distance
+		    || (distance == this.distance && along > this.along)) {
+		this.farthest = index;
+		this.distance = distance;
+		this.along = along;
+	    }
+	}
+    }
+
+
+    /**
+     * Collects the points strictly left of the line from a to b, and finds
+     * the farthest of them. Large scans are split in halves.
+     */
+    private static class ScanTask extends RecursiveTask<Scan> {
+
+	private static final long serialVersionUID = 3402256893129318262L;
+
+	// The points to scan, and the edge.
+	private final int[] xs;
+	private final int[] ys;
+	private final int[] indices;
+	private final int from;
+	private final int to;
+	private final int a;
+	private final int b;
+
+	/**
+	 * @see SideTask#SideTask(int[], int[], int[], int, int, int, int,
+	 * StatsRecorder)
+	 */
+	public ScanTask(int[] xs, int[] ys, int[] indices, int from, int to,
+			int a, int b) {
+	    this.xs = xs;
+	    this.ys = ys;
+	    this.indices = indices;
+	    this.from = from;
+	    this.to = to;
+	    this.a = a;
+	    this.b = b;
+	}
+
+	@Override
+	protected Scan compute() {
+	    if (to - from >= 2 * SEQUENTIAL_THRESHOLD) {
+		int mid = (from + to) >>> 1;
+		ScanTask lower = new ScanTask(xs, ys, indices, from, mid, a, b);
+		ScanTask upper = new ScanTask(xs, ys, indices, mid, to, a, b);
+		ForkJoinTask.invokeAll(lower, upper);
+		return merge(lower.join(), upper.join());
+	    }
+
+	    int ax = xs[a];
+	    int ay = ys[a];
+	    int bx = xs[b];
+	    int by = ys[b];
+	    long edgeX = (long) bx - ax;
+	    long edgeY = (long) by - ay;
+
+	    Scan scan = new Scan();
+	    scan.indices = new int[to - from];
+	    for (int j = from; j < to; j++) {
+		int i = indices == null ? j : indices[j];
+		int x = xs[i];
+		int y = ys[i];
+
+		long distance = Orientation.orient(ax, ay, bx, by, x, y);
+		if (distance > 0) {
+		    scan.indices[scan.count++] = i;
+		    scan.offer(i, distance, Orientation.dot(edgeX, edgeY,
+			    (long) x - ax, (long) y - ay));
+		}
+	    }
+	    return scan;
+	}
+
+	/** Combines the scans of two halves. */
+	private static Scan merge(Scan lower, Scan upper) {
+	    if (upper.count == 0) return lower;
+	    if (lower.count == 0) return upper;
+
+	    Scan scan = new Scan();
+	    scan.indices = Arrays.copyOf(lower.indices,
+					 lower.count + upper.count);
+	    System.arraycopy(upper.indices, 0, scan.indices, lower.count,
+			     upper.count);
+	    scan.count = lower.count + upper.count;
+	    scan.offer(lower.farthest, lower.distance, lower.along);
+	    scan.offer(upper.farthest, upper.distance, upper.along);
+	    return scan;
+	}
+    }
+}
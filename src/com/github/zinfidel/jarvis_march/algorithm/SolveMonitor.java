@@ -0,0 +1,69 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+import com.github.zinfidel.jarvis_march.monitoring.HullMetrics;
+import com.github.zinfidel.jarvis_march.monitoring.SolveEvent;
+
+/**
+ * Runs the solves of all solvers, so that each one is accounted for the same
+ * way: in the solver's statistics (see SolverStats), as a flight recorder
+ * event (see SolveEvent) and in the JMX metrics (see HullMetrics). If none of
+ * these are enabled, the solve is simply run.
+ */
+final class SolveMonitor {
+
+    /** Static utility class - no instances. */
+    private SolveMonitor() {
+    }
+
+
+    /**
+     * Runs a solve.
+     *
+     * @param solver The solver.
+     * @param model The solver's model.
+     * @param recordStats True to record statistics for the solver.
+     * @param solve Solves the hull, recording statistics to the given
+     * recorder, or to none if given null.
+     * @param stats Receives the statistics, if recorded.
+     * @return The solved hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    static ConvexHull run(HullSolver solver, Model model, boolean recordStats,
+			  Function<StatsRecorder, ConvexHull> solve,
+			  Consumer<SolverStats> stats) {
+	SolveEvent event = new SolveEvent();
+	boolean metrics = HullMetrics.isEnabled();
+	if (!recordStats && !metrics && !event.isEnabled())
+	    return solve.apply(null);
+
+	int points = model.getCloud().size();
+	StatsRecorder recorder = recordStats
+		? new StatsRecorder(solver, points) : null;
+
+	event.begin();
+	long start = System.nanoTime();
+	ConvexHull solved = null;
+	try {
+	    return solved = solve.apply(recorder);
+	} finally {
+	    long nanos = System.nanoTime() - start;
+	    event.end();
+	    int hullSize = solved != null && solved.isClosed()
+		    ? solved.getPoints().size() : 0;
+
+	    if (recorder != null) stats.accept(recorder.snapshot(solved));
+	    HullMetrics.solved(nanos, points, hullSize);
+	    if (event.shouldCommit()) {
+		event.solver = solver.getClass().getSimpleName();
+		event.points = points;
+		event.hullSize = hullSize;
+		event.solved = hullSize > 0;
+		event.commit();
+	    }
+	}
+    }
+}
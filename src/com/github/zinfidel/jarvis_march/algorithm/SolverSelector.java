@@ -0,0 +1,96 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.util.Arrays;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Picks the solver that should be fastest for a model, going by the number of
+ * points (n), a rough estimate of the number of hull points (h), and the
+ * number of available cores:
+ *
+ * <ul>
+ * <li>With several cores and enough points to split up, QuickHullSolver.</li>
+ * <li>For very small hulls, JarvisMarcher, whose O(n h) is then as good as
+ * linear, with the smallest constant.</li>
+ * <li>For hulls up to the square root of n, ChanSolver, at O(n log h).</li>
+ * <li>For anything bigger, MonotoneChainSolver, at O(n log n).</li>
+ * </ul>
+ *
+ * The estimate of h is taken from the hull of an evenly spread sample of the
+ * points, so it costs next to nothing, but it is only good enough to tell
+ * small hulls from large ones.
+ */
+public class SolverSelector {
+
+    /** The number of points sampled to estimate the size of the hull. */
+    private static final int SAMPLE_SIZE = 1 << 10;
+
+    /** Hulls up to this size (estimated) are solved by JarvisMarcher. */
+    private static final int MAX_JARVIS_HULL = 16;
+
+    /** Static utility class - no instances. */
+    private SolverSelector() {
+    }
+
+
+    /**
+     * Picks a solver for the model, using the common pool and all of the
+     * available cores.
+     *
+     * @return A new solver for the model.
+     */
+    public static HullSolver select(Model model) {
+	return select(model, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Picks a solver for the model.
+     *
+     * @param model The model to solve.
+     * @param cores The number of cores to assume.
+     * @return A new solver for the model.
+     */
+    public static HullSolver select(Model model, int cores) {
+	int n = model.getCloud().size();
+
+	if (cores > 1 && n >= JarvisMarcher.PARALLEL_THRESHOLD)
+	    return new QuickHullSolver(model);
+
+	long h = estimateHullSize(model.getCloud());
+	if (h <= MAX_JARVIS_HULL) return new JarvisMarcher(model);
+	if (h * h <= n) return new ChanSolver(model);
+	return new MonotoneChainSolver(model);
+    }
+
+
+    /**
+     * Estimates the number of points on the hull of a cloud from the hull of
+     * a sample. If a good part of the sample is on its hull, so is a good
+     * part of the cloud (e.g. points on a circle), and the estimate is scaled
+     * up to the cloud. Otherwise the hull grows slowly with the number of
+     * points (e.g. Gaussian clouds), and the sample's hull size is used as is.
+     *
+     * @return The estimated number of hull points.
+     */
+    static long estimateHullSize(PointCloud cloud) {
+	int n = cloud.size();
+	int samples = Math.min(n, SAMPLE_SIZE);
+	if (samples < 3) return samples;
+
+	// Sample points evenly across the cloud.
+	long[] sorted = new long[samples];
+	for (int i = 0; i < samples; i++) {
+	    int index = (int) ((long) i * n / samples);
+	    sorted[i] = PointCloud.pack(cloud.getX(index), cloud.getY(index));
+	}
+	Arrays.sort(sorted);
+
+	int h = MonotoneChainSolver.chain(sorted, 0, samples,
+					  new int[samples + 1],
+					  new int[samples + 1]);
+
+	return 4 * h >= samples ? (long) h * n / samples : h;
+    }
+}
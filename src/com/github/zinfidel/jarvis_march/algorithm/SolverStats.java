@@ -0,0 +1,149 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+/**
+ * Statistics of one solve of a hull solver (see HullSolver.setStatsEnabled()),
+ * which tell where its time went: into many points (n), many hull points (h),
+ * or repeated attempts.
+ *
+ * What a step is depends on the solver. For JarvisMarcher and ChanSolver it is
+ * one step of the march around the hull, for QuickHullSolver the search of
+ * one edge for a farther point. MonotoneChainSolver takes a single step, as
+ * it sorts and chains all of the points in one go.
+ */
+public class SolverStats {
+
+    private final String solver;
+    private final int points;
+    private final int filtered;
+    private final int hullSize;
+    private final long steps;
+    private final long candidates;
+    private final long maxScan;
+    private final int rounds;
+    private final long nanos;
+    private final long maxStepNanos;
+    private final long allocationsAvoided;
+
+
+    SolverStats(String solver, int points, int filtered, int hullSize,
+		long steps, long candidates, long maxScan, int rounds,
+		long nanos, long maxStepNanos, long allocationsAvoided) {
+	this.solver = solver;
+	this.points = points;
+	this.filtered = filtered;
+	this.hullSize = hullSize;
+	this.steps = steps;
+	this.candidates = candidates;
+	this.maxScan = maxScan;
+	this.rounds = rounds;
+	this.nanos = nanos;
+	this.maxStepNanos = maxStepNanos;
+	this.allocationsAvoided = allocationsAvoided;
+    }
+
+
+    /** @return The simple class name of the solver. */
+    public String getSolver() {
+	return solver;
+    }
+
+
+    /** @return The number of points in the model (n). */
+    public int getPoints() {
+	return points;
+    }
+
+
+    /**
+     * @return The number of points left to solve after filtering out those
+     * inside the model's extremes (see Octagon). All of them, if the solver
+     * does not filter.
+     */
+    public int getFiltered() {
+	return filtered;
+    }
+
+
+    /** @return The number of hull points (h), or 0 if the solve failed. */
+    public int getHullSize() {
+	return hullSize;
+    }
+
+
+    /** @return True if the solve found a hull. */
+    public boolean isSolved() {
+	return hullSize > 0;
+    }
+
+
+    /** @return The number of steps taken. */
+    public long getSteps() {
+	return steps;
+    }
+
+
+    /**
+     * @return The number of candidate points looked at, over all steps. Each
+     * one costs one or two orientation tests (see Orientation).
+     */
+    public long getCandidates() {
+	return candidates;
+    }
+
+
+    /** @return The most candidate points looked at in a single step. */
+    public long getMaxScan() {
+	return maxScan;
+    }
+
+
+    /** @return The average number of candidate points looked at per step. */
+    public double getMeanScan() {
+	return steps == 0 ? 0 : (double) candidates / steps;
+    }
+
+
+    /**
+     * @return The number of attempts it took: ChanSolver starts over when its
+     * guess of the hull size was too small. Always 1 for the others.
+     */
+    public int getRounds() {
+	return rounds;
+    }
+
+
+    /** @return How long the solve took, in nanoseconds. */
+    public long getNanos() {
+	return nanos;
+    }
+
+
+    /**
+     * @return How long the slowest step took, in nanoseconds, or 0 if the
+     * solver's steps run in parallel and are not timed one by one.
+     */
+    public long getMaxStepNanos() {
+	return maxStepNanos;
+    }
+
+
+    /**
+     * @return The number of point objects the solve did not create, compared
+     * to finding the same hull with JarvisMarcher.iterate(), which creates one
+     * for every candidate. Only JarvisMarcher reports this, 0 for others.
+     */
+    public long getAllocationsAvoided() {
+	return allocationsAvoided;
+    }
+
+
+    @Override
+    public String toString() {
+	return solver + ": n=" + points + ", filtered=" + filtered
+		+ ", h=" + hullSize + ", steps=" + steps
+		+ ", candidates=" + candidates + ", maxScan=" + maxScan
+		+ ", rounds=" + rounds + ", " + (nanos / 1000) + "us"
+		+ ", maxStep=" + (maxStepNanos / 1000) + "us"
+		+ ", allocationsAvoided=" + allocationsAvoided;
+    }
+}
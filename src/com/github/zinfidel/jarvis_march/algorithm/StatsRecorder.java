@@ -0,0 +1,86 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import com.github.zinfidel.jarvis_march.geometry.ConvexHull;
+
+/**
+ * Collects the statistics of one solve (see SolverStats). Solvers only create
+ * one when statistics are enabled, and only report to it once per step, so
+ * there is nothing to pay when they are not.
+ */
+class StatsRecorder {
+
+    private final String solver;
+    private final int points;
+    private final long start = System.nanoTime();
+
+    private int filtered;
+    private long steps = 0;
+    private long candidates = 0;
+    private long maxScan = 0;
+    private int rounds = 1;
+    private long maxStepNanos = 0;
+    private long allocationsAvoided = 0;
+
+
+    /**
+     * Starts recording a solve. The points are all left to solve until
+     * filtered() says otherwise.
+     *
+     * @param solver The solver.
+     * @param points The number of points in the model.
+     */
+    StatsRecorder(HullSolver solver, int points) {
+	this.solver = solver.getClass().getSimpleName();
+	this.points = points;
+	this.filtered = points;
+    }
+
+
+    /** Records the number of points left after filtering. */
+    void filtered(int count) {
+	filtered = count;
+    }
+
+
+    /**
+     * Records a step. Steps may be recorded from several threads.
+     *
+     * @param scanned The number of candidate points looked at.
+     * @param nanos How long the step took, or 0 if it was not timed.
+     */
+    synchronized void step(long scanned, long nanos) {
+	steps++;
+	candidates += scanned;
+	maxScan = Math.max(maxScan, scanned);
+	maxStepNanos = Math.max(maxStepNanos, nanos);
+    }
+
+
+    /** Records the start of another attempt. */
+    void round() {
+	rounds++;
+    }
+
+
+    /** Records point objects that were not created. */
+    void avoided(long count) {
+	allocationsAvoided += count;
+    }
+
+
+    /**
+     * Finishes recording.
+     *
+     * @param hull The solved hull, or null (or an open hull) if it failed.
+     * @return The statistics of the solve.
+     */
+    synchronized SolverStats snapshot(ConvexHull hull) {
+	int hullSize = hull != null && hull.isClosed()
+		? hull.getPoints().size() : 0;
+
+	return new SolverStats(solver, points, filtered, hullSize, steps,
+			       candidates, maxScan, rounds,
+			       System.nanoTime() - start, maxStepNanos,
+			       allocationsAvoided);
+    }
+}
@@ -0,0 +1,274 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Builds the convex hull of a stream of points, without keeping the points.
+ * Only the corners of the hull so far are kept, along with a fixed-size
+ * buffer of new points. When the buffer fills up, it is merged with the hull
+ * (see MonotoneChainSolver.chain()), which leaves only the corners again. So
+ * memory use is bounded by the size of the hull plus the buffer, however many
+ * points go by.
+ *
+ * Most points of a typical stream never even make it into the buffer: the
+ * extremes of the stream (see Octagon) are tracked as points go by, and any
+ * point strictly inside of them is dropped right away.
+ *
+ * A streaming hull is not thread safe. To consume a stream in parallel, give
+ * each thread its own streaming hull, and merge them at the end.
+ */
+public class StreamingHull {
+
+    /** The size of the buffer of a streaming hull constructed without one. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /** The number of bytes read from a channel at a time. */
+    private static final int CHANNEL_BUFFER_SIZE = 1 << 16;
+
+    /** The extremes of all points seen so far. */
+    private final Octagon extremes = new Octagon();
+
+    /** New points, packed (see PointCloud.pack()). */
+    private final long[] buffer;
+
+    /** The number of points in the buffer. */
+    private int buffered = 0;
+
+    // The corners of the hull so far, anti-clockwise from the least point.
+    private int[] hullXs = new int[0];
+    private int[] hullYs = new int[0];
+    private int hullSize = 0;
+
+    /** The number of points seen so far. */
+    private long count = 0;
+
+
+    /** Constructs an empty streaming hull with the default buffer size. */
+    public StreamingHull() {
+	this(DEFAULT_BUFFER_SIZE);
+    }
+
+
+    /**
+     * Constructs an empty streaming hull.
+     *
+     * @param bufferSize The number of points to buffer between merges.
+     * @throws IllegalArgumentException if the buffer size is not positive.
+     */
+    public StreamingHull(int bufferSize) {
+	if (bufferSize < 1) throw new IllegalArgumentException(
+		"Buffer size must be positive.");
+
+	buffer = new long[bufferSize];
+    }
+
+
+    /**
+     * Adds a point to the stream. Like the points of a model, it must reside
+     * in quadrant I (positive x and y) of the Cartesian plane.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @throws IllegalArgumentException if the point does not reside in
+     * quadrant I of the plane.
+     */
+    public void add(int x, int y) {
+	Model.checkQuadrant(x, y);
+
+	count++;
+
+	// Points inside of the extremes can not be corners of the hull.
+	if (extremes.contains(x, y)) return;
+	extremes.offer(x, y);
+
+	if (buffered == buffer.length) flush();
+	buffer[buffered++] = PointCloud.pack(x, y);
+    }
+
+
+    /** @see #add(int, int) */
+    public void add(Point point) {
+	add(point.x, point.y);
+    }
+
+
+    /**
+     * Adds all remaining points of an iterator to the stream.
+     *
+     * @see #add(int, int)
+     */
+    public void addAll(Iterator<Point> points) {
+	while (points.hasNext()) {
+	    add(points.next());
+	}
+    }
+
+
+    /**
+     * Adds all remaining points of a spliterator to the stream.
+     *
+     * @see #add(int, int)
+     */
+    public void addAll(Spliterator<Point> points) {
+	points.forEachRemaining(this::add);
+    }
+
+
+    /**
+     * Adds all points that can be read from a channel to the stream, until
+     * the end of the stream. The points are read as pairs of 32-bit little
+     * endian integers: x, then y. The channel is not closed.
+     *
+     * @param channel The channel to read the points from.
+     * @throws IOException if the channel can not be read, or ends in the
+     * middle of a point.
+     * @see #add(int, int)
+     */
+    public void addAll(ReadableByteChannel channel) throws IOException {
+	ByteBuffer bytes = ByteBuffer.allocateDirect(CHANNEL_BUFFER_SIZE)
+				     .order(ByteOrder.LITTLE_ENDIAN);
+
+	while (channel.read(bytes) >= 0) {
+	    bytes.flip();
+	    while (bytes.remaining() >= 8) {
+		add(bytes.getInt(), bytes.getInt());
+	    }
+	    bytes.compact();
+	}
+
+	if (bytes.position() > 0) throw new EOFException(
+		"The channel ended in the middle of a point.");
+    }
+
+
+    /**
+     * Adds all points of another streaming hull to this one. Only the other
+     * hull's corners and buffer are needed for that, which makes this the way
+     * to combine streams that were consumed in parallel.
+     *
+     * @param other The streaming hull to add the points of.
+     * @throws IllegalArgumentException if the other hull is this one.
+     */
+    public void merge(StreamingHull other) {
+	if (other == this) throw new IllegalArgumentException(
+		"A streaming hull can not be merged with itself.");
+
+	other.flush();
+	for (int i = 0; i < other.hullSize; i++) {
+	    add(other.hullXs[i], other.hullYs[i]);
+	}
+
+	// The other stream's points were all counted once already.
+	count += other.count - other.hullSize;
+    }
+
+
+    /**
+     * Merges the buffered points into the hull. This is done automatically
+     * whenever the buffer fills up, and whenever the hull is asked for.
+     */
+    public void flush() {
+	if (buffered == 0) return;
+
+	// Sort the corners along with the buffered points, then chain them.
+	int n = hullSize + buffered;
+	long[] sorted = Arrays.copyOf(buffer, n);
+	for (int i = 0; i < hullSize; i++) {
+	    sorted[buffered + i] = PointCloud.pack(hullXs[i], hullYs[i]);
+	}
+	Arrays.sort(sorted);
+
+	// The stream may repeat points, which the chain does not expect.
+	int distinct = 0;
+	for (int i = 0; i < n; i++) {
+	    if (distinct == 0 || sorted[i] != sorted[distinct - 1])
+		sorted[distinct++] = sorted[i];
+	}
+	n = distinct;
+
+	int[] xs = new int[n + 1];
+	int[] ys = new int[n + 1];
+	hullSize = MonotoneChainSolver.chain(sorted, 0, n, xs, ys);
+	hullXs = Arrays.copyOf(xs, hullSize);
+	hullYs = Arrays.copyOf(ys, hullSize);
+	buffered = 0;
+    }
+
+
+    /**
+     * Provides the convex hull of all points seen so far. Like a solved hull,
+     * it starts at the least (left-most, then lowest) point, runs clockwise,
+     * and skips collinear points.
+     *
+     * @return A new, closed convex hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    public ConvexHull getHull() {
+	return toHull(getCorners());
+    }
+
+
+    /** @return The number of corners of the hull so far. */
+    public int getVertexCount() {
+	flush();
+	return hullSize;
+    }
+
+
+    /** @return The number of points seen so far. */
+    public long getCount() {
+	return count;
+    }
+
+
+    /**
+     * @return The corners of the hull so far, packed (see PointCloud.pack()),
+     * anti-clockwise from the least point.
+     */
+    long[] getCorners() {
+	flush();
+
+	long[] corners = new long[hullSize];
+	for (int i = 0; i < hullSize; i++) {
+	    corners[i] = PointCloud.pack(hullXs[i], hullYs[i]);
+	}
+	return corners;
+    }
+
+
+    /**
+     * Builds a closed convex hull from its corners, as solved hulls are
+     * built: clockwise from the least point.
+     *
+     * @param corners Packed corners, anti-clockwise from the least point.
+     * @return A new, closed convex hull.
+     * @throws DegenerateGeometryException if there are less than 3 corners.
+     */
+    static ConvexHull toHull(long[] corners) {
+
+	// Anything less than a triangle is not a hull - e.g. collinear points.
+	if (corners.length < 3) throw new DegenerateGeometryException(
+		"No valid point was found to add - probably degenerate geometry.");
+
+	// The corners run anti-clockwise, so walk them backwards.
+	Point start = new Point(PointCloud.unpackX(corners[0]),
+				PointCloud.unpackY(corners[0]));
+	ConvexHull hull = new ConvexHull(start);
+	for (int i = corners.length - 1; i > 0; i--) {
+	    hull.addPoint(new Point(PointCloud.unpackX(corners[i]),
+				    PointCloud.unpackY(corners[i])));
+	}
+	hull.addPoint(start);
+
+	return hull;
+    }
+}
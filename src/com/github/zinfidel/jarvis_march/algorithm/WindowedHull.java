@@ -0,0 +1,265 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Keeps the convex hull of the points of a stream that fall within a sliding
+ * window of time, e.g. the last minute of a live feed. Points older than the
+ * window expire on their own as time moves on.
+ *
+ * Time is cut into buckets of a fixed width, and only the corners of the hull
+ * of each bucket are kept (see StreamingHull). Whole buckets expire at once,
+ * so a point expires once every point of its bucket is older than the window.
+ * That is, the window is as precise as the width of the buckets.
+ *
+ * Hulls combine: the hull of two sets of points is the hull of their hulls.
+ * The buckets are kept in two stacks that cache such combined hulls, so that
+ * every bucket is only combined a constant number of times over its life,
+ * however often the hull is asked for. Asking for it combines at most three
+ * small hulls, no matter how many points are in the window.
+ *
+ * Points have to arrive in order of time, to the nearest bucket: a point may
+ * be older than the newest point, but not older than its bucket. A windowed
+ * hull is not thread safe.
+ */
+public class WindowedHull {
+
+    /** The size of the buffer of the streaming hull of the newest bucket. */
+    private static final int BUCKET_BUFFER_SIZE = 1 << 10;
+
+    /** How long points are kept, in the units of the timestamps. */
+    private final long window;
+
+    /** How much time each bucket covers, in the units of the timestamps. */
+    private final long bucketWidth;
+
+    /** The time of the newest point, or the latest time advanced to. */
+    private long now = Long.MIN_VALUE;
+
+    // The newest bucket, which still takes points. Null if there is none.
+    private StreamingHull open = null;
+    private long openIndex;
+
+    /**
+     * The oldest buckets, oldest first. Each one holds the combined corners of
+     * itself and every newer bucket in this stack.
+     */
+    private final ArrayDeque<Bucket> front = new ArrayDeque<Bucket>();
+
+    /** The buckets between the front and the open bucket, oldest first. */
+    private final ArrayDeque<Bucket> back = new ArrayDeque<Bucket>();
+
+    /** The combined corners of every bucket in the back stack. */
+    private long[] backCorners = new long[0];
+
+
+    /**
+     * Constructs an empty windowed hull.
+     *
+     * @param window How long points are kept, in the units of the timestamps.
+     * @param bucketWidth How much time each bucket covers. The window should
+     * be a good deal wider: a few dozen buckets is plenty.
+     * @throws IllegalArgumentException if either length is not positive.
+     */
+    public WindowedHull(long window, long bucketWidth) {
+	if (window < 1 || bucketWidth < 1) throw new IllegalArgumentException(
+		"Window and bucket width must be positive.");
+
+	this.window = window;
+	this.bucketWidth = bucketWidth;
+    }
+
+
+    /**
+     * Adds a point to the window, and moves the window up to its time. Like the
+     * points of a model, it must reside in quadrant I (positive x and y) of
+     * the Cartesian plane.
+     *
+     * @param timestamp The time of the point.
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return False if the point has expired already, and was dropped.
+     * @throws IllegalArgumentException if the point does not reside in
+     * quadrant I of the plane, or is older than the bucket of the newest one.
+     */
+    public boolean add(long timestamp, int x, int y) {
+	Model.checkQuadrant(x, y);
+
+	advanceTo(timestamp);
+	if (timestamp < getCutoff()) return false;
+
+	long index = Math.floorDiv(timestamp, bucketWidth);
+	if (open != null && index < openIndex) throw new IllegalArgumentException(
+		"Points must be added in order of time, to the nearest bucket.");
+
+	// A new bucket seals the open one.
+	if (open != null && index > openIndex) {
+	    Bucket sealed = new Bucket(openIndex, open.getCorners());
+	    back.addLast(sealed);
+	    backCorners = combine(backCorners, sealed.corners);
+	    open = null;
+	}
+
+	if (open == null) {
+	    open = new StreamingHull(BUCKET_BUFFER_SIZE);
+	    openIndex = index;
+	}
+
+	open.add(x, y);
+	return true;
+    }
+
+
+    /** @see #add(long, int, int) */
+    public boolean add(long timestamp, Point point) {
+	return add(timestamp, point.x, point.y);
+    }
+
+
+    /**
+     * Moves the window up to a time, expiring the buckets that fall out of it.
+     * Moving it back in time does nothing.
+     *
+     * @param time The time to move the window to.
+     */
+    public void advanceTo(long time) {
+	if (time <= now) return;
+	now = time;
+
+	// Buckets expire oldest first: front, then back, then the open one.
+	while (true) {
+	    if (front.isEmpty()) flip();
+
+	    if (!front.isEmpty()) {
+		if (!isExpired(front.peekFirst().index)) break;
+		front.removeFirst();
+	    } else {
+		if (open != null && isExpired(openIndex)) open = null;
+		break;
+	    }
+	}
+    }
+
+
+    /**
+     * Provides the convex hull of the points in the window. Like a solved
+     * hull, it starts at the least (left-most, then lowest) point, runs
+     * clockwise, and skips collinear points.
+     *
+     * @return A new, closed convex hull.
+     * @throws DegenerateGeometryException if the points do not form a hull.
+     */
+    public ConvexHull getHull() {
+	return StreamingHull.toHull(getCorners());
+    }
+
+
+    /** @return The number of corners of the hull of the window. */
+    public int getVertexCount() {
+	return getCorners().length;
+    }
+
+
+    /** @return How long points are kept, in the units of the timestamps. */
+    public long getWindow() {
+	return window;
+    }
+
+
+    /** @return How much time each bucket covers. */
+    public long getBucketWidth() {
+	return bucketWidth;
+    }
+
+
+    /** @return The combined corners of every bucket in the window. */
+    private long[] getCorners() {
+	long[] corners = backCorners;
+	if (!front.isEmpty()) corners = combine(front.peekFirst().corners, corners);
+	if (open != null) corners = combine(corners, open.getCorners());
+	return corners;
+    }
+
+
+    /**
+     * Moves the back stack onto the empty front stack, newest first, so that
+     * each bucket picks up the combined corners of the newer ones.
+     */
+    private void flip() {
+	long[] newer = new long[0];
+	while (!back.isEmpty()) {
+	    Bucket bucket = back.removeLast();
+	    newer = combine(bucket.corners, newer);
+	    front.addFirst(new Bucket(bucket.index, newer));
+	}
+	backCorners = new long[0];
+    }
+
+
+    /** @return The time of the oldest point that has not expired. */
+    private long getCutoff() {
+	// Early on, nothing can be old enough to expire.
+	if (now < Long.MIN_VALUE + window) return Long.MIN_VALUE;
+	return now - window;
+    }
+
+
+    /** @return True if every point of the bucket is older than the window. */
+    private boolean isExpired(long index) {
+	return index < Math.floorDiv(getCutoff(), bucketWidth);
+    }
+
+
+    /**
+     * Combines the corners of two hulls into the corners of their hull.
+     *
+     * @param a Packed corners, anti-clockwise from the least point.
+     * @param b Packed corners, anti-clockwise from the least point.
+     * @return Packed corners, anti-clockwise from the least point.
+     */
+    private static long[] combine(long[] a, long[] b) {
+	if (a.length == 0) return b;
+	if (b.length == 0) return a;
+
+	int n = a.length + b.length;
+	long[] sorted = Arrays.copyOf(a, n);
+	System.arraycopy(b, 0, sorted, a.length, b.length);
+	Arrays.sort(sorted);
+
+	// The hulls may share corners, which the chain does not expect.
+	int distinct = 0;
+	for (int i = 0; i < n; i++) {
+	    if (distinct == 0 || sorted[i] != sorted[distinct - 1])
+		sorted[distinct++] = sorted[i];
+	}
+
+	int[] xs = new int[distinct + 1];
+	int[] ys = new int[distinct + 1];
+	int size = MonotoneChainSolver.chain(sorted, 0, distinct, xs, ys);
+
+	long[] corners = new long[size];
+	for (int i = 0; i < size; i++) {
+	    corners[i] = PointCloud.pack(xs[i], ys[i]);
+	}
+	return corners;
+    }
+
+
+    /** A sealed bucket, with the corners of one or more buckets. */
+    private static class Bucket {
+
+	/** The time of the bucket, in bucket widths. */
+	final long index;
+
+	/** Packed corners, anti-clockwise from the least point. */
+	final long[] corners;
+
+	Bucket(long index, long[] corners) {
+	    this.index = index;
+	    this.corners = corners;
+	}
+    }
+}
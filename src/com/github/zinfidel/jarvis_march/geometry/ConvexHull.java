@@ -1,7 +1,7 @@
 package com.github.zinfidel.jarvis_march.geometry;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -12,21 +12,21 @@ import java.util.List;
 public class ConvexHull {
 
     /** A list of points that comprise the convex hull. */
-    private final LinkedList<Point> hullPoints = new LinkedList<>();
+    private final ArrayList<Point> hullPoints = new ArrayList<>();
 
     /**
      * A list of vectors that comprise the convex hull.
      * Each vector's tail starts at the point sharing the same index and points
      * towards the next point in the hull.
      */
-    private final LinkedList<Vector> hullEdges = new LinkedList<>();;
+    private final ArrayList<Vector> hullEdges = new ArrayList<>();
 
     /**
      * A list of angles between the vectors that comprise the convex hull.
      * This list "mirrors" the points list in that the first angle in this list
      * is the angle located between the two vectors sharing the first point.
      */
-    private final LinkedList<Angle> hullAngles = new LinkedList<>();
+    private final ArrayList<Angle> hullAngles = new ArrayList<>();
     
     /** Indicates that the hull is a closed loop and thus solved. */
     private boolean closed = false;
@@ -115,7 +115,7 @@ public class ConvexHull {
 	curPoint = point;
 	
 	// Close the hull if this is the initial point, otherwise add it.
-	if (point.equals(hullPoints.getFirst())) {
+	if (point.equals(hullPoints.get(0))) {
 	    closed = true;
 	} else {
 	    hullPoints.add(point);
@@ -136,4 +136,219 @@ public class ConvexHull {
 	return closed;
     }
 
+    /**
+     * Updates a closed hull with a new point of the point cloud, in place.
+     * The hull must be clockwise, start at its least (left-most, then lowest)
+     * point, and have no collinear points, as solved hulls do. It stays that
+     * way.
+     * 
+     * Seen from the start point, the other points of the hull are in
+     * clockwise order, so a binary search finds the wedge of the hull the new
+     * point falls into. Within that wedge, a single orientation test tells
+     * whether the point is inside the hull, which is the common case. Nothing
+     * is allocated for points inside the hull.
+     * 
+     * A point outside of the hull sees a chain of its edges. Starting from
+     * the edge of the wedge, the chain is walked to the two tangent points,
+     * and the points in between are replaced by the new point. Every point
+     * walked past is removed, so the walk costs nothing extra in the long run.
+     * Only the edges and angles next to the new point are recalculated,
+     * unless the new point becomes the start point.
+     * 
+     * @param point The point to insert.
+     * @return True if the hull changed, false if the point was inside of it
+     * or on its boundary.
+     * @throws IllegalArgumentException if the point is null.
+     */
+    public boolean insert(Point point) {
+	if (point == null) throw new IllegalArgumentException(
+		"Null can not be inserted into the convex hull.");
+	
+	if (!closed || hullPoints.size() < 3) throw new RuntimeException(
+		"Points can only be inserted into a closed (solved) convex hull.");
+	
+	int visible = locate(point);
+	if (visible < 0) return false;
+	
+	// A new least point becomes the start point, which moves every index.
+	Point start = hullPoints.get(0);
+	if (point.x < start.x || (point.x == start.x && point.y < start.y)) {
+	    splice(point, visible);
+	    return true;
+	}
+	
+	// Otherwise the visible chain never wraps past the start point.
+	int first = visible;
+	while (first > 0 && isVisible(first - 1, point)) first--;
+	int last = visible;
+	while (last < hullPoints.size() - 1 && isVisible(last + 1, point)) last++;
+	
+	// Replace the points between the tangent points with the new point.
+	hullPoints.subList(first + 1, last + 1).clear();
+	hullEdges.subList(first + 1, last + 1).clear();
+	hullAngles.subList(first + 1, last + 1).clear();
+	hullPoints.add(first + 1, point);
+	hullEdges.add(first + 1, null);
+	hullAngles.add(first + 1, null);
+	
+	for (int i = first; i <= first + 1; i++) {
+	    updateEdge(i);
+	}
+	for (int i = first; i <= first + 2 && i < hullPoints.size(); i++) {
+	    updateAngle(i);
+	}
+	
+	curVector = hullEdges.get(hullEdges.size() - 1);
+	return true;
+    }
+    
+    /**
+     * Finds an edge of the hull that faces a point, by locating the wedge of
+     * the hull (as seen from the start point) that the point is in.
+     * 
+     * @return The index of an edge the point is outside of, or -1 if the
+     * point is inside of the hull or on its boundary.
+     */
+    private int locate(Point point) {
+	int last = hullPoints.size() - 1;
+	Point start = hullPoints.get(0);
+	
+	// A point less than the start point is outside, and must see one of
+	// the edges at the start point.
+	if (point.x < start.x || (point.x == start.x && point.y < start.y)) {
+	    return isVisible(last, point) ? last : 0;
+	}
+	
+	// Find the wedge the point is in.
+	int lo = wedge(point);
+	
+	// Anti-clockwise from the first edge: inside only if on that edge.
+	if (lo == 0) {
+	    Point first = hullPoints.get(1);
+	    if (Orientation.orient(start, first, point) > 0) return 0;
+	    return Orientation.distanceSq(start.x, start.y, point.x, point.y)
+		    > Orientation.distanceSq(start.x, start.y, first.x, first.y)
+		    ? 0 : -1;
+	}
+	
+	// Clockwise from the last edge: outside.
+	if (lo == last) return last;
+	
+	// Within a wedge: outside if left of the edge across the wedge.
+	return Orientation.orient(hullPoints.get(lo), hullPoints.get(lo + 1),
+				  point) > 0 ? lo : -1;
+    }
+    
+    /**
+     * Determines whether a point is a corner of a closed hull, with a binary
+     * search like the one insert() uses.
+     * 
+     * @return True if the point is one of the hull's points.
+     */
+    public boolean isVertex(Point point) {
+	Point start = hullPoints.get(0);
+	if (point.equals(start)) return true;
+	if (point.x < start.x || (point.x == start.x && point.y < start.y))
+	    return false;
+	
+	// A corner lies on its own ray from the start point.
+	int lo = wedge(point);
+	return lo + 1 < hullPoints.size() && hullPoints.get(lo + 1).equals(point);
+    }
+    
+    /**
+     * Finds the last point of the hull that a point is (strictly) clockwise
+     * from, as seen from the start point. The point must not be less than the
+     * start point.
+     * 
+     * @return The index of the hull point, or 0 if there is none.
+     */
+    private int wedge(Point point) {
+	Point start = hullPoints.get(0);
+	int lo = 0;
+	int hi = hullPoints.size() - 1;
+	while (lo < hi) {
+	    int mid = (lo + hi + 1) >>> 1;
+	    if (Orientation.orient(start, hullPoints.get(mid), point) < 0) {
+		lo = mid;
+	    } else {
+		hi = mid - 1;
+	    }
+	}
+	return lo;
+    }
+    
+    /**
+     * Determines whether an edge of the hull is visible from a point outside
+     * of the hull. An edge that is in line with the point counts as visible,
+     * as the point in between would no longer be a corner of the hull.
+     */
+    private boolean isVisible(int edge, Point point) {
+	int next = edge + 1 == hullPoints.size() ? 0 : edge + 1;
+	return Orientation.orient(hullPoints.get(edge), hullPoints.get(next),
+				  point) >= 0;
+    }
+    
+    /**
+     * Inserts a new start point, given an edge it sees. The hull is rebuilt
+     * to start at the new point.
+     */
+    private void splice(Point point, int visible) {
+	int size = hullPoints.size();
+	
+	// Walk the visible chain both ways, around the start if need be.
+	int first = visible;
+	while (isVisible((first + size - 1) % size, point)) {
+	    first = (first + size - 1) % size;
+	}
+	int last = visible;
+	while (isVisible((last + 1) % size, point)) {
+	    last = (last + 1) % size;
+	}
+	
+	// The new point, then the hull from one tangent point to the other.
+	List<Point> points = new ArrayList<>();
+	points.add(point);
+	for (int i = (last + 1) % size; ; i = (i + 1) % size) {
+	    points.add(hullPoints.get(i));
+	    if (i == first) break;
+	}
+	
+	hullPoints.clear();
+	hullPoints.addAll(points);
+	hullEdges.clear();
+	hullAngles.clear();
+	for (int i = 0; i < points.size(); i++) {
+	    hullEdges.add(null);
+	    hullAngles.add(null);
+	}
+	for (int i = 0; i < points.size(); i++) {
+	    updateEdge(i);
+	}
+	for (int i = 0; i < points.size(); i++) {
+	    updateAngle(i);
+	}
+	
+	curPoint = point;
+	curVector = hullEdges.get(hullEdges.size() - 1);
+    }
+    
+    /** Recalculates the edge from a point of a closed hull to the next. */
+    private void updateEdge(int index) {
+	int next = index + 1 == hullPoints.size() ? 0 : index + 1;
+	hullEdges.set(index, new Vector(hullPoints.get(index),
+					hullPoints.get(next)));
+    }
+    
+    /**
+     * Recalculates the angle at a point of a closed hull, as addPoint() would
+     * have calculated it.
+     */
+    private void updateAngle(int index) {
+	Vector edge = hullEdges.get(index);
+	Vector previous = index == 0 ? Vector.Y_AXIS : hullEdges.get(index - 1);
+	hullAngles.set(index, new Angle(edge.angleTo(previous), edge.angle,
+					hullPoints.get(index)));
+    }
+
 }
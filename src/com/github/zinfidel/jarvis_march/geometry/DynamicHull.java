@@ -0,0 +1,515 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A convex hull that stays correct as points are both inserted and removed,
+ * in polylogarithmic time per update, after Overmars and van Leeuwen.
+ *
+ * The points are kept in a balanced search tree (a treap), ordered by x, then
+ * by y. Each node of the tree stores the upper and lower chains of the hull
+ * of the points below it, and the chains of a node are joined from the chains
+ * of its children at their bridges (common tangents), which binary searches
+ * find. The chains are immutable balanced trees themselves, so joining them
+ * shares everything but O(log n) nodes with the children, and an update only
+ * needs to rejoin the chains along one path of the tree: O(log^3 n) overall.
+ * In fact, a chain only has to be rejoined if the point is (or was) one of
+ * its corners, so points well inside the hull are much cheaper than that.
+ *
+ * The hull is the same one the solvers find: it starts at the least
+ * (left-most, then lowest) point, runs clockwise, and skips collinear points.
+ */
+public class DynamicHull {
+
+    /** The root of the point tree. */
+    private Node root = null;
+
+    /** The number of points in the hull's point set. */
+    private int size = 0;
+
+
+    /** Constructs an empty dynamic hull. */
+    public DynamicHull() {
+    }
+
+
+    /**
+     * Constructs a dynamic hull of all the points of a cloud. The tree is
+     * built bottom-up from the sorted points, which is much faster than
+     * inserting them one by one.
+     *
+     * @param cloud The points to start with.
+     */
+    public DynamicHull(PointCloud cloud) {
+	int n = cloud.size();
+	long[] sorted = new long[n];
+	for (int i = 0; i < n; i++) {
+	    sorted[i] = PointCloud.pack(cloud.getX(i), cloud.getY(i));
+	}
+	Arrays.sort(sorted);
+
+	// Build the treap with a stack of its right spine, then the chains.
+	Node[] spine = new Node[n];
+	int depth = 0;
+	for (long key : sorted) {
+	    Node node = new Node(key);
+	    Node last = null;
+	    while (depth > 0 && spine[depth - 1].priority < node.priority) {
+		last = spine[--depth];
+	    }
+	    node.left = last;
+	    if (depth > 0) spine[depth - 1].right = node;
+	    spine[depth++] = node;
+	}
+
+	root = depth > 0 ? spine[0] : null;
+	size = n;
+	updateAll(root);
+    }
+
+
+    /**
+     * Inserts a point, unless it is already in the hull's point set.
+     *
+     * @return True if the point was inserted.
+     */
+    public boolean insert(int x, int y) {
+	if (contains(x, y)) return false;
+
+	root = insert(root, new Node(PointCloud.pack(x, y)));
+	size++;
+	return true;
+    }
+
+
+    /**
+     * Removes a point from the hull's point set.
+     *
+     * @return True if the point was removed, false if it was not in the set.
+     */
+    public boolean remove(int x, int y) {
+	if (!contains(x, y)) return false;
+
+	root = remove(root, PointCloud.pack(x, y));
+	size--;
+	return true;
+    }
+
+
+    /** @return True if the point is in the hull's point set. */
+    public boolean contains(int x, int y) {
+	long key = PointCloud.pack(x, y);
+	Node node = root;
+	while (node != null && node.key != key) {
+	    node = key < node.key ? node.left : node.right;
+	}
+	return node != null;
+    }
+
+
+    /** @return True if the point is a corner of the hull. */
+    public boolean isVertex(int x, int y) {
+	if (root == null) return false;
+
+	long key = PointCloud.pack(x, y);
+	return Chain.contains(root.upper, key) || Chain.contains(root.lower, key);
+    }
+
+
+    /** @return The number of points in the hull's point set. */
+    public int size() {
+	return size;
+    }
+
+
+    /** @return The number of corners of the hull. */
+    public int getVertexCount() {
+	if (root == null) return 0;
+
+	// The chains share the least and greatest points.
+	return Math.max(root.upper.size + root.lower.size - 2, 1);
+    }
+
+
+    /**
+     * Provides the corners of the hull: clockwise from the least point, first
+     * along the upper chain, then back along the lower one. If the points are
+     * collinear, these are just the two end points.
+     *
+     * @return A new list of the hull's corners.
+     */
+    public List<Point> getVertices() {
+	List<Point> vertices = new ArrayList<Point>();
+	if (root == null) return vertices;
+
+	List<Point> lower = new ArrayList<Point>();
+	Chain.collect(root.upper, vertices);
+	Chain.collect(root.lower, lower);
+	for (int i = lower.size() - 2; i > 0; i--) {
+	    vertices.add(lower.get(i));
+	}
+	return vertices;
+    }
+
+
+    /**
+     * Inserts a new node into a tree, where its priority puts it.
+     *
+     * @return The new root of the tree.
+     */
+    private static Node insert(Node node, Node fresh) {
+	if (node == null) return fresh;
+
+	if (fresh.priority > node.priority) {
+	    Node[] parts = split(node, fresh.key);
+	    fresh.left = parts[0];
+	    fresh.right = parts[1];
+	    update(fresh);
+	    return fresh;
+	}
+
+	Node child;
+	if (fresh.key < node.key) {
+	    child = node.left = insert(node.left, fresh);
+	} else {
+	    child = node.right = insert(node.right, fresh);
+	}
+
+	// If the new point did not make it onto the child's chains, they are
+	// the same as before, and so are this node's.
+	if (Chain.contains(child.upper, fresh.key)) updateUpper(node);
+	if (Chain.contains(child.lower, fresh.key)) updateLower(node);
+	return node;
+    }
+
+
+    /**
+     * Removes the node of a point from a tree, which must have the point.
+     *
+     * @return The new root of the tree.
+     */
+    private static Node remove(Node node, long key) {
+	if (node.key == key) return merge(node.left, node.right);
+
+	// Only chains that the point was a corner of change without it.
+	boolean upper = Chain.contains(node.upper, key);
+	boolean lower = Chain.contains(node.lower, key);
+
+	if (key < node.key) {
+	    node.left = remove(node.left, key);
+	} else {
+	    node.right = remove(node.right, key);
+	}
+
+	if (upper) updateUpper(node);
+	if (lower) updateLower(node);
+	return node;
+    }
+
+
+    /**
+     * Splits a tree into the points less than a key and the rest. The chains
+     * of every node on the way are joined again.
+     *
+     * @return The two trees.
+     */
+    private static Node[] split(Node node, long key) {
+	if (node == null) return new Node[2];
+
+	Node[] parts;
+	if (node.key < key) {
+	    parts = split(node.right, key);
+	    node.right = parts[0];
+	    parts[0] = node;
+	} else {
+	    parts = split(node.left, key);
+	    node.left = parts[1];
+	    parts[1] = node;
+	}
+	update(node);
+	return parts;
+    }
+
+
+    /**
+     * Merges two trees, where every point of the first is less than every
+     * point of the second.
+     *
+     * @return The merged tree.
+     */
+    private static Node merge(Node a, Node b) {
+	if (a == null) return b;
+	if (b == null) return a;
+
+	if (a.priority > b.priority) {
+	    a.right = merge(a.right, b);
+	    update(a);
+	    return a;
+	} else {
+	    b.left = merge(a, b.left);
+	    update(b);
+	    return b;
+	}
+    }
+
+
+    /** Joins the chains of every node of a tree, children first. */
+    private static void updateAll(Node node) {
+	if (node == null) return;
+
+	updateAll(node.left);
+	updateAll(node.right);
+	update(node);
+    }
+
+
+    /** Joins the chains of a node from those of its children. */
+    private static void update(Node node) {
+	updateUpper(node);
+	updateLower(node);
+    }
+
+
+    /** Joins the upper chain of a node from those of its children. */
+    private static void updateUpper(Node node) {
+	Node left = node.left;
+	Node right = node.right;
+
+	node.upper = Chain.join(Chain.join(left == null ? null : left.upper,
+					   node.single, true),
+				right == null ? null : right.upper, true);
+    }
+
+
+    /** Joins the lower chain of a node from those of its children. */
+    private static void updateLower(Node node) {
+	Node left = node.left;
+	Node right = node.right;
+
+	node.lower = Chain.join(Chain.join(left == null ? null : left.lower,
+					   node.single, false),
+				right == null ? null : right.lower, false);
+    }
+
+
+    /** @return A well-spread priority for a packed point. */
+    private static int priority(long key) {
+	long h = key * 0x9E3779B97F4A7C15L;
+	h ^= h >>> 29;
+	h *= 0xBF58476D1CE4E5B9L;
+	return (int) (h ^ (h >>> 32));
+    }
+
+
+    /** A node of the point tree. */
+    private static class Node {
+
+	/** The point, packed (see PointCloud.pack()). */
+	final long key;
+
+	/** The heap priority of the node. */
+	final int priority;
+
+	/** A chain of just this node's point. */
+	final Chain single;
+
+	// The children.
+	Node left;
+	Node right;
+
+	// The chains of the hull of the points in this subtree.
+	Chain upper;
+	Chain lower;
+
+	Node(long key) {
+	    this.key = key;
+	    this.priority = priority(key);
+	    this.single = new Chain(key, priority, null, null);
+	    this.upper = single;
+	    this.lower = single;
+	}
+    }
+
+
+    /**
+     * An immutable treap of the corners of a hull chain, in order. Upper
+     * chains turn clockwise (right) at every corner, lower chains turn
+     * anti-clockwise (left), and both run from the least to the greatest
+     * point, just like the halves of a monotone chain.
+     */
+    private static class Chain {
+
+	/** The point, packed (see PointCloud.pack()). */
+	final long key;
+
+	// The coordinates of the point.
+	final int x;
+	final int y;
+
+	/** The heap priority of the node. */
+	final int priority;
+
+	// The children.
+	final Chain left;
+	final Chain right;
+
+	// The least and greatest points of this subtree, packed.
+	final long first;
+	final long last;
+
+	/** The number of points in this subtree. */
+	final int size;
+
+	Chain(long key, int priority, Chain left, Chain right) {
+	    this.key = key;
+	    this.x = PointCloud.unpackX(key);
+	    this.y = PointCloud.unpackY(key);
+	    this.priority = priority;
+	    this.left = left;
+	    this.right = right;
+	    this.first = left == null ? key : left.first;
+	    this.last = right == null ? key : right.last;
+	    this.size = 1 + (left == null ? 0 : left.size)
+			  + (right == null ? 0 : right.size);
+	}
+
+	/**
+	 * Joins two chains at their bridge, where every point of the first is
+	 * less than every point of the second.
+	 *
+	 * @param upper True for upper chains, false for lower chains.
+	 * @return The joined chain.
+	 */
+	static Chain join(Chain a, Chain b, boolean upper) {
+	    if (a == null) return b;
+	    if (b == null) return a;
+
+	    Chain from = bridge(a, b, upper);
+	    Chain to = tangent(from.x, from.y, b, upper);
+	    return merge(head(a, from.key), tail(b, to.key));
+	}
+
+	/**
+	 * Finds the corner of the first chain where the bridge to the second
+	 * chain starts: the first corner whose successor does not lie above
+	 * (for upper chains) the line to its tangent point on the second.
+	 */
+	private static Chain bridge(Chain a, Chain b, boolean upper) {
+	    Chain best = null;
+	    Chain node = a;
+	    boolean hasAbove = false;
+	    long above = 0;
+
+	    while (node != null) {
+		boolean hasNext = node.right != null || hasAbove;
+		long next = node.right != null ? node.right.first : above;
+
+		boolean before = false;
+		if (hasNext) {
+		    Chain to = tangent(node.x, node.y, b, upper);
+		    before = turn(node.x, node.y, to.x, to.y, next, upper) > 0;
+		}
+
+		if (before) {
+		    node = node.right;
+		} else {
+		    best = node;
+		    hasAbove = true;
+		    above = node.key;
+		    node = node.left;
+		}
+	    }
+	    return best;
+	}
+
+	/**
+	 * Finds the tangent point of a chain, as seen from a point less than
+	 * all of its points: the first corner whose successor lies below (for
+	 * upper chains) the line to it. Of collinear corners, the farthest is
+	 * the tangent point.
+	 */
+	private static Chain tangent(int px, int py, Chain b, boolean upper) {
+	    Chain best = null;
+	    Chain node = b;
+	    boolean hasAbove = false;
+	    long above = 0;
+
+	    while (node != null) {
+		boolean hasNext = node.right != null || hasAbove;
+		long next = node.right != null ? node.right.first : above;
+
+		if (!hasNext || turn(px, py, node.x, node.y, next, upper) < 0) {
+		    best = node;
+		    hasAbove = true;
+		    above = node.key;
+		    node = node.left;
+		} else {
+		    node = node.right;
+		}
+	    }
+	    return best;
+	}
+
+	/**
+	 * Determines which way a packed point lies from a line, with upper
+	 * chains as the reference.
+	 *
+	 * @return > 0 if the point lies above (outside) the line, < 0 if it
+	 * lies below, and 0 if it is on the line.
+	 */
+	private static long turn(int ax, int ay, int bx, int by, long point,
+				 boolean upper) {
+	    long orient = Orientation.orient(ax, ay, bx, by,
+					     PointCloud.unpackX(point),
+					     PointCloud.unpackY(point));
+	    return upper ? orient : -orient;
+	}
+
+	/** @return The chain of the points up to and including a key. */
+	private static Chain head(Chain node, long key) {
+	    if (node == null || node.last <= key) return node;
+	    if (node.key > key) return head(node.left, key);
+	    return new Chain(node.key, node.priority, node.left,
+			     head(node.right, key));
+	}
+
+	/** @return The chain of the points from a key on. */
+	private static Chain tail(Chain node, long key) {
+	    if (node == null || node.first >= key) return node;
+	    if (node.key < key) return tail(node.right, key);
+	    return new Chain(node.key, node.priority, tail(node.left, key),
+			     node.right);
+	}
+
+	/** @return Two chains merged, where the first has the lesser points. */
+	private static Chain merge(Chain a, Chain b) {
+	    if (a == null) return b;
+	    if (b == null) return a;
+
+	    if (a.priority > b.priority) {
+		return new Chain(a.key, a.priority, a.left, merge(a.right, b));
+	    } else {
+		return new Chain(b.key, b.priority, merge(a, b.left), b.right);
+	    }
+	}
+
+	/** @return True if the chain has a point. */
+	static boolean contains(Chain node, long key) {
+	    while (node != null && node.key != key) {
+		node = key < node.key ? node.left : node.right;
+	    }
+	    return node != null;
+	}
+
+	/** Adds the points of a chain to a list, in order. */
+	static void collect(Chain node, List<Point> points) {
+	    if (node == null) return;
+
+	    collect(node.left, points);
+	    points.add(new Point(node.x, node.y));
+	    collect(node.right, points);
+	}
+    }
+}
@@ -1,9 +1,10 @@
 package com.github.zinfidel.jarvis_march.geometry;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import com.github.zinfidel.jarvis_march.monitoring.HullMetrics;
+
 /**
  * Models the entirety of the convex hull problem. Contains a point cloud from
  * which to generate a hull, and stores a hull to build.
@@ -14,8 +15,11 @@ public class Model {
     private final static Point MAX_BOUNDS =
 	    new Point(Integer.MAX_VALUE, Integer.MAX_VALUE);
 
-    /** The point cloud. Using a set protects against concurrent points. */
-    private final HashSet<Point> freePoints = new HashSet<>();
+    /**
+     * The point cloud. It is stored as primitives, and being a set protects
+     * against concurrent points.
+     */
+    private final PointCloud freePoints = new PointCloud();
     
     /** The current most upper-right point in the point cloud. */
     private Point bounds = Point.ORIGIN;
@@ -23,17 +27,35 @@ public class Model {
     /** The current left-most point in the point cloud. */
     private Point leftmost = MAX_BOUNDS;
     
+    /** The extreme points of the point cloud, for filtering before solving. */
+    private final Octagon extremes = new Octagon();
+    
     /** The current convex hull. */
     private ConvexHull hull = null;
     
+    /** Whether addPoint() and removePoint() keep the current hull up to date. */
+    private boolean incremental = false;
+    
+    /**
+     * The hull of the point cloud under insertions and removals, used in
+     * incremental mode once points are removed. Null if not needed yet.
+     */
+    private DynamicHull dynamicHull = null;
+    
+    /** The number of changes to the point cloud so far. */
+    private int modCount = 0;
+    
     
     /**
-     * Adds a point to the model's point cloud, and updates the bounds and
-     * leftmost point.
+     * Adds a point to the model's point cloud, and updates the bounds,
+     * leftmost point and extremes.
      * 
      * The point can not be null, and must reside in quadrant I (positive x
      * and y) of the Cartesian plane.
      * 
+     * In incremental mode, a solved (closed) hull is updated with the point
+     * as well, see setIncremental().
+     * 
      * @param point The point to add.
      * @throws IllegalArgumentException if the point is null or does not reside
      * in quadrant I of the plane.
@@ -43,44 +65,245 @@ public class Model {
 	if (point == null) throw new IllegalArgumentException(
 		"Null can not be added to the point cloud.");
 	
-	// Points must be in quadrant 1.
-	if (point.x < 0 || point.y < 0) throw new IllegalArgumentException(
+	addPoint(point.x, point.y, point);
+    }
+    
+    /**
+     * Adds a point to the model's point cloud, as addPoint(Point) does, but
+     * without needing a point object. One is only created if the point
+     * becomes the leftmost point or joins a solved hull, so loading many
+     * points this way allocates next to nothing.
+     * 
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @throws IllegalArgumentException if the point does not reside in
+     * quadrant I of the plane.
+     */
+    public void addPoint(int x, int y) {
+	addPoint(x, y, null);
+    }
+    
+    /**
+     * Makes room for a number of points in all in the model's point cloud,
+     * so that adding up to that many does not re-allocate along the way.
+     * This is for loading a large cloud in several calls of addPoints().
+     * 
+     * @param capacity The number of points to make room for.
+     */
+    public void ensureCapacity(int capacity) {
+	freePoints.ensureCapacity(capacity);
+    }
+    
+    /**
+     * Adds many points to the model's point cloud, as addPoint(int, int)
+     * does for each of them. Room is made for all of them up front, and
+     * the bookkeeping (the mod count and the metrics, see HullMetrics) is
+     * done once for all of them, so this is the way to load large clouds.
+     * 
+     * @param xs The x-coordinates of the points.
+     * @param ys The y-coordinates of the points.
+     * @param count The number of points, from the start of the arrays.
+     * @throws IllegalArgumentException if the arrays hold less points than
+     * the count, or a point does not reside in quadrant I of the plane. The
+     * points before that point have been added.
+     */
+    public void addPoints(int[] xs, int[] ys, int count) {
+	if (count < 0 || count > xs.length || count > ys.length)
+	    throw new IllegalArgumentException(
+		    "The arrays hold less points than the count.");
+	
+	boolean timed = HullMetrics.isEnabled();
+	long start = timed ? System.nanoTime() : 0;
+	
+	freePoints.ensureCapacity(freePoints.size() + count);
+	boolean changed = false;
+	int i = 0;
+	try {
+	    for (; i < count; i++) {
+		changed |= insert(xs[i], ys[i], null);
+	    }
+	} finally {
+	    if (changed) modCount++;
+	    if (timed) HullMetrics.bulkLoaded(System.nanoTime() - start, i);
+	}
+    }
+    
+    /**
+     * Adds a point to the point cloud and updates the other fields.
+     * 
+     * @param point The point as an object, or null to create one if needed.
+     */
+    private void addPoint(int x, int y, Point point) {
+	boolean timed = HullMetrics.isEnabled();
+	long start = timed ? System.nanoTime() : 0;
+	
+	if (insert(x, y, point)) modCount++;
+	
+	if (timed) HullMetrics.mutated(System.nanoTime() - start);
+    }
+    
+    /**
+     * Checks that a point resides in quadrant I (positive x and y) of the
+     * Cartesian plane, as the points of a model must. Code that loads points
+     * into a point cloud of its own checks them this way as well.
+     * 
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @throws IllegalArgumentException if the point does not reside in
+     * quadrant I of the plane.
+     */
+    public static void checkQuadrant(int x, int y) {
+	if (x < 0 || y < 0) throw new IllegalArgumentException(
 		"Only points in quadrant I (positive x and y coordinates) " +
 		"can be added to the point cloud.");
+    }
+    
+    /**
+     * Inserts a point into the point cloud and updates the other fields,
+     * but for the mod count.
+     * 
+     * @param point The point as an object, or null to create one if needed.
+     * @return True if the point was added, false if it was present already.
+     */
+    private boolean insert(int x, int y, Point point) {
+	// Points must be in quadrant 1.
+	checkQuadrant(x, y);
 	
 	// If point is added (wasn't in set) update other fields.
-	if (freePoints.add(point)) {
-	    updateBounds(point);
-	    updateLeftmost(point);
+	if (freePoints.add(x, y)) {
+	    updateBounds(x, y);
+	    if (isLeftOf(x, y, leftmost))
+		leftmost = point != null ? point : new Point(x, y);
+	    extremes.offer(x, y);
+	    
+	    if (dynamicHull != null) dynamicHull.insert(x, y);
+	    if (incremental && hull != null && hull.isClosed())
+		hull.insert(point != null ? point : new Point(x, y));
+	    return true;
+	}
+	return false;
+    }
+    
+    /**
+     * Removes a point from the model's point cloud. If the point was the
+     * leftmost point, on the bounds or one of the extremes, those are found
+     * again.
+     * 
+     * In incremental mode, a solved (closed) hull is kept up to date as well.
+     * The first removal builds a DynamicHull of the point cloud, which is
+     * then kept along with the cloud. Removing a point inside of the hull
+     * leaves it as is, removing a corner replaces it with the new hull (or
+     * with none, if the rest of the points do not form one).
+     * 
+     * @param point The point to remove.
+     * @return True if the point was removed, false if it was not in the
+     * point cloud.
+     * @throws IllegalArgumentException if the point is null.
+     */
+    public boolean removePoint(Point point) {
+	if (point == null) throw new IllegalArgumentException(
+		"Null can not be removed from the point cloud.");
+	
+	boolean timed = HullMetrics.isEnabled();
+	long start = timed ? System.nanoTime() : 0;
+	try {
+	    return remove(point);
+	} finally {
+	    if (timed) HullMetrics.mutated(System.nanoTime() - start);
 	}
     }
     
+    /**
+     * Removes a point from the point cloud and updates the other fields.
+     * 
+     * @return True if the point was removed.
+     */
+    private boolean remove(Point point) {
+	boolean corner = incremental && hull != null && hull.isClosed()
+		&& hull.isVertex(point);
+	
+	if (!freePoints.remove(point.x, point.y)) return false;
+	modCount++;
+	
+	if (dynamicHull != null) {
+	    dynamicHull.remove(point.x, point.y);
+	} else if (incremental) {
+	    dynamicHull = new DynamicHull(freePoints);
+	}
+	
+	if (point.equals(leftmost) || point.x == bounds.x
+		|| point.y == bounds.y || extremes.isExtreme(point.x, point.y))
+	    updateExtremes();
+	
+	if (corner) {
+	    List<Point> vertices = dynamicHull.getVertices();
+	    if (vertices.size() < 3) {
+		hull = null;
+	    } else {
+		newHull();
+		for (int i = 1; i < vertices.size(); i++) {
+		    hull.addPoint(vertices.get(i));
+		}
+		hull.addPoint(vertices.get(0));
+	    }
+	}
+	
+	return true;
+    }
+
+    
     /**
      * Updates the upper-right boundary of the model. Note that the bounds are
      * not necessarily modified, only if the point supplied has a greater
      * x or y value.
      * 
-     * @param point The point to check against the current boundary.
+     * @param x The x-coordinate of the point to check.
+     * @param y The y-coordinate of the point to check.
      */
-    private void updateBounds(Point point) {
-	boolean xGreater = point.x > bounds.x ? true : false;
-	boolean yGreater = point.y > bounds.y ? true : false;
+    private void updateBounds(int x, int y) {
+	boolean xGreater = x > bounds.x ? true : false;
+	boolean yGreater = y > bounds.y ? true : false;
 	
 	if (xGreater || yGreater) {
-	    int x = xGreater ? point.x : bounds.x;
-	    int y = yGreater ? point.y : bounds.y;
-	    bounds = new Point(x, y);
+	    bounds = new Point(xGreater ? x : bounds.x,
+			       yGreater ? y : bounds.y);
 	}
     }
     
     /**
      * Updates the leftmost point of the model. This will only actually change
      * the leftmost point if the supplied point has an x-value less than the
-     * current leftmost point's x-value.
+     * current leftmost point's x-value, or the same x-value and a lesser
+     * y-value. Breaking ties this way makes the leftmost point the lower-left
+     * corner of the hull, which is always a true hull vertex.
      * @param point
      */
     private void updateLeftmost(Point point) {
-	if (point.x < leftmost.x) leftmost = point;
+	if (isLeftOf(point.x, point.y, leftmost)) leftmost = point;
+    }
+    
+    /** @return True if the point is left of (or level with and below) the other. */
+    private static boolean isLeftOf(int x, int y, Point other) {
+	return x < other.x || (x == other.x && y < other.y);
+    }
+    
+    /**
+     * Finds the bounds, leftmost point and extremes again, after one of them
+     * was removed. All of them are corners of the hull, so with a dynamic
+     * hull only its corners need to be checked.
+     */
+    private void updateExtremes() {
+	bounds = Point.ORIGIN;
+	leftmost = MAX_BOUNDS;
+	extremes.clear();
+	
+	Iterable<Point> points = dynamicHull != null
+		? dynamicHull.getVertices() : freePoints.asSet();
+	for (Point point : points) {
+	    updateBounds(point.x, point.y);
+	    updateLeftmost(point);
+	    extremes.offer(point.x, point.y);
+	}
     }
     
     /**
@@ -88,12 +311,26 @@ public class Model {
      * reset, and the current convex hull is deleted as well.
      */
     public void clearPoints() {
+	modCount++;
 	freePoints.clear();
 	bounds = Point.ORIGIN;
 	leftmost = MAX_BOUNDS;
+	extremes.clear();
+	dynamicHull = null;
 	hull = null;
     }
     
+    /**
+     * Provides a count of the changes to the point cloud, which goes up
+     * whenever points are added, removed or cleared. Caches of anything drawn
+     * from the points can compare it to tell whether they are stale.
+     * 
+     * @return The number of changes to the point cloud so far.
+     */
+    public int getModCount() {
+	return modCount;
+    }
+    
     /** @return The model's current bounds. */
     public Point getBounds() {
 	return bounds;
@@ -104,9 +341,56 @@ public class Model {
 	return leftmost;
     }
     
-    /** @return An immutable view of the point cloud. */
+    /**
+     * Provides the point cloud as a set of points. This is a compatibility
+     * view of the primitive cloud (see getCloud()) that creates point objects
+     * while it is iterated, so algorithms should prefer the cloud itself.
+     * 
+     * @return An immutable view of the point cloud.
+     */
     public Set<Point> getPoints() {
-	return Collections.unmodifiableSet(freePoints);
+	return freePoints.asSet();
+    }
+    
+    /**
+     * Provides the point cloud as primitive coordinate arrays. The cloud is
+     * the model's own storage, so it must only be read - points are added
+     * through addPoint().
+     * 
+     * @return The point cloud.
+     */
+    public PointCloud getCloud() {
+	return freePoints;
+    }
+    
+    /**
+     * Provides the extreme points of the point cloud, which rule out most
+     * points as hull points before solving (see Octagon.filter()).
+     * 
+     * @return The extremes of the point cloud.
+     */
+    public Octagon getExtremes() {
+	return extremes;
+    }
+    
+    /**
+     * Turns incremental mode on or off. In incremental mode, once the hull
+     * has been solved, every point added to the model is inserted into the
+     * hull in place (see ConvexHull.insert()), so the hull never has to be
+     * solved again. Removed points are taken care of as well, see
+     * removePoint(). Until the hull is solved, added points just join the
+     * point cloud.
+     * 
+     * @param incremental True to update the hull as points are added.
+     */
+    public void setIncremental(boolean incremental) {
+	this.incremental = incremental;
+	if (!incremental) dynamicHull = null;
+    }
+    
+    /** @return True if addPoint() updates a solved hull in place. */
+    public boolean isIncremental() {
+	return incremental;
     }
     
     /** @return The current convex hull. This can be null! */
@@ -0,0 +1,203 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the extreme points of a point cloud in eight directions: least and
+ * greatest x, y, x+y and x-y. The extreme points are all hull points, so the
+ * octagon they form lies inside the hull, and any point strictly inside the
+ * octagon can not be a hull point (Akl-Toussaint heuristic).
+ *
+ * Filtering those points out before solving is a single linear pass, and on
+ * typical clouds it throws away the vast majority of the points. The extremes
+ * are updated one point at a time, so a model can keep them as it goes.
+ */
+public class Octagon {
+
+    /** The eight directions, anti-clockwise from straight down. */
+    private static final int[] DIR_X = { 0, 1, 1, 1, 0, -1, -1, -1 };
+    private static final int[] DIR_Y = { -1, -1, 0, 1, 1, 1, 0, -1 };
+
+    /** X-coordinates of the extreme point in each direction. */
+    private final int[] xs = new int[8];
+
+    /** Y-coordinates of the extreme point in each direction. */
+    private final int[] ys = new int[8];
+
+    /** True until the first point is offered. */
+    private boolean empty = true;
+
+    // The distinct extremes in order (see updateRing()), so that tests
+    // against the octagon do not have to work them out every time.
+    private final int[] ringXs = new int[8];
+    private final int[] ringYs = new int[8];
+
+    /** The number of distinct extremes, or -1 if they have to be updated. */
+    private int ringSize = -1;
+
+
+    /**
+     * Updates the extremes with a point.
+     *
+     * If several points are equally far in a direction, the one farthest
+     * anti-clockwise along the hull is kept. That keeps the extremes in
+     * hull order, so they always form a convex polygon.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     */
+    public void offer(int x, int y) {
+	if (empty) {
+	    for (int d = 0; d < 8; d++) {
+		xs[d] = x;
+		ys[d] = y;
+	    }
+	    empty = false;
+	    ringSize = -1;
+	    return;
+	}
+
+	for (int d = 0; d < 8; d++) {
+	    long along = extent(d, x, y) - extent(d, xs[d], ys[d]);
+	    if (along > 0 || (along == 0 &&
+		    sideways(d, x, y) > sideways(d, xs[d], ys[d]))) {
+		xs[d] = x;
+		ys[d] = y;
+		ringSize = -1;
+	    }
+	}
+    }
+
+
+    /** @return True if the point is the extreme in any direction. */
+    public boolean isExtreme(int x, int y) {
+	if (empty) return false;
+
+	for (int d = 0; d < 8; d++) {
+	    if (xs[d] == x && ys[d] == y) return true;
+	}
+	return false;
+    }
+
+
+    /** Forgets all of the extremes. */
+    public void clear() {
+	empty = true;
+	ringSize = -1;
+    }
+
+
+    /**
+     * Provides the corners of the octagon. There may be fewer than eight, as
+     * one point can be the extreme in several directions.
+     *
+     * @return The distinct extreme points, anti-clockwise from the lowest.
+     */
+    public List<Point> getVertices() {
+	int m = updateRing();
+
+	List<Point> vertices = new ArrayList<Point>(m);
+	for (int i = 0; i < m; i++) {
+	    vertices.add(new Point(ringXs[i], ringYs[i]));
+	}
+	return vertices;
+    }
+
+
+    /**
+     * Determines whether a point lies strictly inside of the octagon. Points
+     * on its boundary do not. If the octagon has no area, nothing is inside.
+     *
+     * @return True if the point can not be a hull point.
+     */
+    public boolean contains(int x, int y) {
+	int m = updateRing();
+
+	return m >= 3 && inside(ringXs, ringYs, m, x, y);
+    }
+
+
+    /**
+     * Copies the points of a cloud that are not strictly inside the octagon,
+     * i.e. the only points that can be hull points. The order of the points
+     * is kept.
+     *
+     * @param cloud The cloud the extremes were taken from.
+     * @param outXs Receives the x-coordinates. Must fit cloud.size() points.
+     * @param outYs Receives the y-coordinates. Must fit cloud.size() points.
+     * @return The number of points copied.
+     */
+    public int filter(PointCloud cloud, int[] outXs, int[] outYs) {
+	int[] xs = cloud.getXs();
+	int[] ys = cloud.getYs();
+	int n = cloud.size();
+
+	int m = updateRing();
+
+	int count = 0;
+	for (int i = 0; i < n; i++) {
+	    int x = xs[i];
+	    int y = ys[i];
+	    if (m >= 3 && inside(ringXs, ringYs, m, x, y)) continue;
+
+	    outXs[count] = x;
+	    outYs[count] = y;
+	    count++;
+	}
+	return count;
+    }
+
+
+    /**
+     * Collects the distinct extremes in order, unless they still are. Equal
+     * extremes are always adjacent, as the extremes are in hull order.
+     *
+     * @return The number of distinct extremes.
+     */
+    private int updateRing() {
+	if (ringSize >= 0) return ringSize;
+	if (empty) return ringSize = 0;
+
+	int m = 0;
+	for (int d = 0; d < 8; d++) {
+	    if (m > 0 && xs[d] == ringXs[m - 1] && ys[d] == ringYs[m - 1])
+		continue;
+
+	    ringXs[m] = xs[d];
+	    ringYs[m] = ys[d];
+	    m++;
+	}
+
+	// The last extreme may wrap around to the first.
+	if (m > 1 && ringXs[m - 1] == ringXs[0] && ringYs[m - 1] == ringYs[0])
+	    m--;
+
+	return ringSize = m;
+    }
+
+
+    /** @return True if the point is strictly left of every edge of a ring. */
+    private static boolean inside(int[] ringXs, int[] ringYs, int m,
+				  int x, int y) {
+	for (int i = 0; i < m; i++) {
+	    int j = i + 1 == m ? 0 : i + 1;
+	    if (Orientation.orient(ringXs[i], ringYs[i],
+				   ringXs[j], ringYs[j], x, y) <= 0)
+		return false;
+	}
+	return true;
+    }
+
+
+    /** @return How far a point lies in a direction. */
+    private static long extent(int d, int x, int y) {
+	return (long) DIR_X[d] * x + (long) DIR_Y[d] * y;
+    }
+
+
+    /** @return How far a point lies anti-clockwise across a direction. */
+    private static long sideways(int d, int x, int y) {
+	return (long) -DIR_Y[d] * x + (long) DIR_X[d] * y;
+    }
+}
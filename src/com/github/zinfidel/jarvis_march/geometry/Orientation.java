@@ -0,0 +1,76 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+/**
+ * Exact orientation predicates for points with integer coordinates. All
+ * arithmetic is done on longs, so unlike angles built from atan2, the results
+ * never suffer from rounding, and ties (collinear points) are detected
+ * reliably.
+ *
+ * The results are exact as long as every coordinate difference fits in 32
+ * bits, which is always the case for points in quadrant I (the only points a
+ * model accepts).
+ */
+public final class Orientation {
+
+    /** Static utility class - no instances. */
+    private Orientation() {
+    }
+
+
+    /**
+     * Calculates the cross product (z-component) of the vectors
+     * <code>a</code> and <code>b</code>.
+     *
+     * @return > 0 if <code>b</code> is anti-clockwise from <code>a</code>,
+     * < 0 if it is clockwise, and 0 if the vectors are parallel.
+     */
+    public static long cross(long ax, long ay, long bx, long by) {
+	return ax * by - ay * bx;
+    }
+
+
+    /**
+     * Calculates the dot product of the vectors <code>a</code> and
+     * <code>b</code>.
+     *
+     * @return > 0 if the vectors point the same way, < 0 if they point in
+     * opposite ways, and 0 if they are perpendicular.
+     */
+    public static long dot(long ax, long ay, long bx, long by) {
+	return ax * bx + ay * by;
+    }
+
+
+    /**
+     * Determines the orientation of the point <code>b</code> relative to the
+     * line from <code>origin</code> to <code>a</code>.
+     *
+     * @return > 0 if <code>b</code> lies left of (anti-clockwise from) the
+     * line, < 0 if it lies right of (clockwise from) the line, and 0 if the
+     * three points are collinear.
+     */
+    public static long orient(int ox, int oy, int ax, int ay, int bx, int by) {
+	return cross((long) ax - ox, (long) ay - oy,
+		     (long) bx - ox, (long) by - oy);
+    }
+
+
+    /** @see #orient(int, int, int, int, int, int) */
+    public static long orient(Point origin, Point a, Point b) {
+	return orient(origin.x, origin.y, a.x, a.y, b.x, b.y);
+    }
+
+
+    /**
+     * Calculates the squared distance between two points. Unlike
+     * {@link Point#distanceTo(Point)} this is exact, which makes it suitable
+     * for comparing distances.
+     *
+     * @return The squared distance between <code>a</code> and <code>b</code>.
+     */
+    public static long distanceSq(int ax, int ay, int bx, int by) {
+	long dx = (long) bx - ax;
+	long dy = (long) by - ay;
+	return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,365 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A set of points stored as primitives rather than as Point objects. The
+ * coordinates live in two parallel arrays (structure-of-arrays), in insertion
+ * order (except that removing a point moves the last point into its place),
+ * so algorithms can scan them sequentially without chasing pointers.
+ * Concurrent points are rejected through a small open-addressing hash index
+ * of the arrays, which replaces the entries of a HashSet.
+ *
+ * Depending on how full the arrays are, a point costs 16-32 bytes (half
+ * coordinates, half hash index), compared to roughly 60 bytes for a boxed
+ * Point in a HashSet.
+ */
+public class PointCloud {
+
+    /** Capacity of a cloud constructed without one. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Marks an unused slot of the hash index. */
+    private static final int EMPTY = -1;
+
+    /** X-coordinates of the points. Only the first size entries are used. */
+    private int[] xs;
+
+    /** Y-coordinates of the points. Only the first size entries are used. */
+    private int[] ys;
+
+    /** The number of points in the cloud. */
+    private int size = 0;
+
+    /**
+     * Hash index into the coordinate arrays, using linear probing. Each slot
+     * holds the index of a point, or EMPTY. The length is a power of two and
+     * is kept at least twice the capacity of the coordinate arrays.
+     */
+    private int[] slots;
+
+
+    /** Constructs an empty point cloud. */
+    public PointCloud() {
+	this(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Constructs an empty point cloud with room for a number of points.
+     *
+     * @param capacity The number of points to reserve room for.
+     */
+    public PointCloud(int capacity) {
+	if (capacity < 0) throw new IllegalArgumentException(
+		"Capacity can not be negative.");
+
+	capacity = Math.max(capacity, DEFAULT_CAPACITY);
+	xs = new int[capacity];
+	ys = new int[capacity];
+	slots = newSlots(capacity);
+    }
+
+
+    /**
+     * Adds a point to the cloud, unless it is already in it.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return True if the point was added, false if it was already present.
+     */
+    public boolean add(int x, int y) {
+	int slot = findSlot(x, y);
+	if (slots[slot] != EMPTY) return false;
+
+	// Grow first if need be, and look the slot up in the new index.
+	if (size == xs.length) {
+	    grow();
+	    slot = findSlot(x, y);
+	}
+
+	xs[size] = x;
+	ys[size] = y;
+	slots[slot] = size;
+	size++;
+	return true;
+    }
+
+
+    /**
+     * Removes a point from the cloud. The last point of the arrays is moved
+     * into its place, so the index of that point changes.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return True if the point was removed, false if it was not present.
+     */
+    public boolean remove(int x, int y) {
+	int slot = findSlot(x, y);
+	int index = slots[slot];
+	if (index == EMPTY) return false;
+
+	deleteSlot(slot);
+
+	// Fill the hole with the last point, and re-index that point.
+	int last = size - 1;
+	if (index != last) {
+	    xs[index] = xs[last];
+	    ys[index] = ys[last];
+	    slots[findSlot(xs[last], ys[last])] = index;
+	}
+	size--;
+	return true;
+    }
+
+
+    /**
+     * Finds a point in the cloud.
+     *
+     * @return The index of the point, or -1 if it is not in the cloud.
+     */
+    public int indexOf(int x, int y) {
+	return slots[findSlot(x, y)];
+    }
+
+
+    /** @return True if the point is in the cloud. */
+    public boolean contains(int x, int y) {
+	return indexOf(x, y) != EMPTY;
+    }
+
+
+    /** @return The x-coordinate of the point at the given index. */
+    public int getX(int index) {
+	checkIndex(index);
+	return xs[index];
+    }
+
+
+    /** @return The y-coordinate of the point at the given index. */
+    public int getY(int index) {
+	checkIndex(index);
+	return ys[index];
+    }
+
+
+    /** @return A new point object for the point at the given index. */
+    public Point get(int index) {
+	checkIndex(index);
+	return new Point(xs[index], ys[index]);
+    }
+
+
+    /**
+     * Gives direct access to the x-coordinates, for algorithms that scan
+     * the whole cloud. Only the first size() entries are points, and the
+     * array must not be modified. The array is replaced when the cloud grows,
+     * so it should not be held on to across additions.
+     *
+     * @return The backing array of x-coordinates.
+     */
+    public int[] getXs() {
+	return xs;
+    }
+
+
+    /**
+     * Gives direct access to the y-coordinates. The same caveats as for
+     * getXs() apply.
+     *
+     * @return The backing array of y-coordinates.
+     */
+    public int[] getYs() {
+	return ys;
+    }
+
+
+    /** @return The number of points in the cloud. */
+    public int size() {
+	return size;
+    }
+
+
+    /** @return True if there are no points in the cloud. */
+    public boolean isEmpty() {
+	return size == 0;
+    }
+
+
+    /** Removes all of the points from the cloud. Capacity is retained. */
+    public void clear() {
+	Arrays.fill(slots, EMPTY);
+	size = 0;
+    }
+
+
+    /**
+     * Provides a view of the cloud as a set of points. The view is backed by
+     * the cloud, so it reflects later changes, and it can not be modified.
+     * Point objects are created as the view is iterated.
+     *
+     * @return An immutable set view of the cloud.
+     */
+    public Set<Point> asSet() {
+	return new AbstractSet<Point>() {
+
+	    @Override
+	    public Iterator<Point> iterator() {
+		return new Iterator<Point>() {
+		    private int next = 0;
+
+		    @Override
+		    public boolean hasNext() {
+			return next < size;
+		    }
+
+		    @Override
+		    public Point next() {
+			if (next >= size) throw new NoSuchElementException();
+			return get(next++);
+		    }
+		};
+	    }
+
+	    @Override
+	    public int size() {
+		return size;
+	    }
+
+	    @Override
+	    public boolean contains(Object obj) {
+		if (!(obj instanceof Point)) return false;
+
+		Point point = (Point) obj;
+		return PointCloud.this.contains(point.x, point.y);
+	    }
+	};
+    }
+
+
+    /**
+     * Packs a point into a single long, with x in the upper half and y in the
+     * lower half. For points in quadrant I, ordering the packed values orders
+     * the points by x, then by y.
+     *
+     * @return The packed point.
+     */
+    public static long pack(int x, int y) {
+	return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+
+    /** @return The x-coordinate of a point packed by pack(). */
+    public static int unpackX(long packed) {
+	return (int) (packed >>> 32);
+    }
+
+
+    /** @return The y-coordinate of a point packed by pack(). */
+    public static int unpackY(long packed) {
+	return (int) packed;
+    }
+
+
+    /**
+     * Finds the slot of the hash index that holds a point, or the empty slot
+     * where it would go.
+     */
+    private int findSlot(int x, int y) {
+	int mask = slots.length - 1;
+	int slot = hash(x, y) & mask;
+
+	while (true) {
+	    int index = slots[slot];
+	    if (index == EMPTY || (xs[index] == x && ys[index] == y))
+		return slot;
+
+	    slot = (slot + 1) & mask;
+	}
+    }
+
+
+    /**
+     * Empties a slot of the hash index. Linear probing can not simply leave a
+     * hole, as later points of the same run would no longer be found, so
+     * points are shifted back into the hole where they may go.
+     */
+    private void deleteSlot(int slot) {
+	int mask = slots.length - 1;
+	int hole = slot;
+
+	for (int next = (hole + 1) & mask; slots[next] != EMPTY;
+		next = (next + 1) & mask) {
+	    int index = slots[next];
+	    int home = hash(xs[index], ys[index]) & mask;
+
+	    // A point may move back if the hole is between its home and it.
+	    if (((next - home) & mask) >= ((next - hole) & mask)) {
+		slots[hole] = index;
+		hole = next;
+	    }
+	}
+
+	slots[hole] = EMPTY;
+    }
+
+
+    /**
+     * Makes room for a number of points in all, so that adding up to that
+     * many points does not re-allocate along the way.
+     *
+     * @param capacity The number of points to make room for.
+     */
+    public void ensureCapacity(int capacity) {
+	if (capacity > xs.length) resize(capacity);
+    }
+
+
+    /** Doubles the coordinate arrays and the hash index. */
+    private void grow() {
+	resize(xs.length * 2);
+    }
+
+
+    /** Re-allocates the coordinate arrays and the hash index. */
+    private void resize(int capacity) {
+	xs = Arrays.copyOf(xs, capacity);
+	ys = Arrays.copyOf(ys, capacity);
+	slots = newSlots(capacity);
+
+	// Re-index every point.
+	int mask = slots.length - 1;
+	for (int i = 0; i < size; i++) {
+	    int slot = hash(xs[i], ys[i]) & mask;
+	    while (slots[slot] != EMPTY) slot = (slot + 1) & mask;
+	    slots[slot] = i;
+	}
+    }
+
+
+    /** @return An empty hash index that can hold a number of points. */
+    private static int[] newSlots(int capacity) {
+	int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+	int[] slots = new int[length];
+	Arrays.fill(slots, EMPTY);
+	return slots;
+    }
+
+
+    /** Mixes both coordinates into a well-spread hash value. */
+    private static int hash(int x, int y) {
+	long h = pack(x, y) * 0x9E3779B97F4A7C15L;
+	return (int) (h ^ (h >>> 32));
+    }
+
+
+    /** Throws if the index is not the index of a point. */
+    private void checkIndex(int index) {
+	if (index < 0 || index >= size) throw new IndexOutOfBoundsException(
+		"Index: " + index + ", Size: " + size);
+    }
+}
@@ -0,0 +1,295 @@
+package com.github.zinfidel.jarvis_march.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.github.zinfidel.jarvis_march.algorithm.StreamingHull;
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * A binary point cloud file, read through memory mapping. The file is a
+ * header followed by the points, all little endian:
+ *
+ * <pre>
+ * int  magic     "JMPT" (0x54504D4A read as an int)
+ * int  version   1
+ * long count     The number of points.
+ * int  x, int y  For each point.
+ * </pre>
+ *
+ * The points are not copied out of the file, let alone into point objects:
+ * they are read straight from the page cache, whether by index or by loading
+ * them into a model, a point cloud or a streaming hull. Files of any size can
+ * be read, as they are mapped in regions of up to a gigabyte.
+ */
+public class PointFile implements Closeable {
+
+    /** The first four bytes of a point file: "JMPT". */
+    public static final int MAGIC = 0x54504D4A;
+
+    /** The version of the format that is read and written. */
+    public static final int VERSION = 1;
+
+    /** The number of bytes before the first point. */
+    public static final int HEADER_SIZE = 16;
+
+    /** The number of bytes per point. */
+    private static final int POINT_SIZE = 8;
+
+    /** The number of points per mapped region, 2^27 points or 1 GiB. */
+    private static final int REGION_SHIFT = 27;
+
+    /** The number of points written at a time. */
+    private static final int WRITE_BUFFER_POINTS = 1 << 13;
+
+    /** The number of points added to a model at a time. */
+    private static final int LOAD_BATCH_POINTS = 1 << 13;
+
+    private final FileChannel channel;
+
+    /** The number of points in the file. */
+    private final long count;
+
+    /** The mapped regions of the file, as pairs of ints. */
+    private final IntBuffer[] regions;
+
+
+    /**
+     * Maps a point file for reading.
+     *
+     * @param channel The file, open for reading.
+     * @throws IOException if the file can not be read, or is not a point file.
+     */
+    private PointFile(FileChannel channel) throws IOException {
+	this.channel = channel;
+
+	ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+				      .order(ByteOrder.LITTLE_ENDIAN);
+	while (header.hasRemaining()) {
+	    if (channel.read(header, header.position()) < 0) break;
+	}
+	header.flip();
+
+	if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC)
+	    throw new IOException("Not a point file.");
+	int version = header.getInt();
+	if (version != VERSION) throw new IOException(
+		"Unsupported point file version: " + version + ".");
+	count = header.getLong();
+
+	long available = (channel.size() - HEADER_SIZE) / POINT_SIZE;
+	if (count < 0 || count > available) throw new IOException(
+		"The point file is truncated: " + count + " points declared, "
+		+ available + " present.");
+
+	// Map the points in regions, as a single mapping is limited to 2 GiB.
+	long perRegion = 1L << REGION_SHIFT;
+	regions = new IntBuffer[(int) ((count + perRegion - 1) / perRegion)];
+	for (int r = 0; r < regions.length; r++) {
+	    long first = r * perRegion;
+	    long points = Math.min(perRegion, count - first);
+	    regions[r] = channel.map(FileChannel.MapMode.READ_ONLY,
+				     HEADER_SIZE + first * POINT_SIZE,
+				     points * POINT_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.asIntBuffer();
+	}
+    }
+
+
+    /**
+     * Opens and maps a point file for reading. It should be closed when done.
+     *
+     * @param path The path of the file.
+     * @return The mapped point file.
+     * @throws IOException if the file can not be read, or is not a point file.
+     */
+    public static PointFile open(Path path) throws IOException {
+	FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+	try {
+	    return new PointFile(channel);
+	} catch (IOException e) {
+	    channel.close();
+	    throw e;
+	}
+    }
+
+
+    /**
+     * Writes the points of a cloud to a point file, replacing the file if it
+     * exists.
+     *
+     * @param path The path of the file.
+     * @param cloud The points to write.
+     * @throws IOException if the file can not be written.
+     */
+    public static void write(Path path, PointCloud cloud) throws IOException {
+	write(path, cloud.getXs(), cloud.getYs(), cloud.size());
+    }
+
+
+    /**
+     * Writes points to a point file, replacing the file if it exists.
+     *
+     * @param path The path of the file.
+     * @param xs The x-coordinates of the points.
+     * @param ys The y-coordinates of the points.
+     * @param n The number of points to write.
+     * @throws IOException if the file can not be written.
+     */
+    public static void write(Path path, int[] xs, int[] ys, int n)
+	    throws IOException {
+	try (FileChannel channel = FileChannel.open(path,
+		StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+		StandardOpenOption.TRUNCATE_EXISTING)) {
+
+	    ByteBuffer bytes = ByteBuffer
+		    .allocateDirect(WRITE_BUFFER_POINTS * POINT_SIZE)
+		    .order(ByteOrder.LITTLE_ENDIAN);
+
+	    bytes.putInt(MAGIC).putInt(VERSION).putLong(n);
+	    for (int i = 0; i < n; i++) {
+		if (bytes.remaining() < POINT_SIZE) drain(bytes, channel);
+		bytes.putInt(xs[i]).putInt(ys[i]);
+	    }
+	    drain(bytes, channel);
+	}
+    }
+
+
+    /** Writes out and empties a buffer that has been filled. */
+    private static void drain(ByteBuffer bytes, FileChannel channel)
+	    throws IOException {
+	bytes.flip();
+	while (bytes.hasRemaining()) {
+	    channel.write(bytes);
+	}
+	bytes.clear();
+    }
+
+
+    /** @return The number of points in the file. */
+    public long size() {
+	return count;
+    }
+
+
+    /** @return The x-coordinate of a point. */
+    public int getX(long index) {
+	checkIndex(index);
+	return regions[(int) (index >>> REGION_SHIFT)]
+		.get(offset(index));
+    }
+
+
+    /** @return The y-coordinate of a point. */
+    public int getY(long index) {
+	checkIndex(index);
+	return regions[(int) (index >>> REGION_SHIFT)]
+		.get(offset(index) + 1);
+    }
+
+
+    /**
+     * Adds every point of the file to a model, in batches (see
+     * Model.addPoints()). Room is made for all of them up front.
+     *
+     * @throws IllegalArgumentException if a point does not reside in quadrant
+     * I of the plane. The points before it have been added.
+     */
+    public void loadInto(Model model) {
+	model.ensureCapacity(capacityFor(model.getCloud().size()));
+
+	int[] xs = new int[LOAD_BATCH_POINTS];
+	int[] ys = new int[LOAD_BATCH_POINTS];
+	for (IntBuffer region : regions) {
+	    // A duplicate, so that loads do not share a position.
+	    IntBuffer points = region.duplicate();
+	    while (points.hasRemaining()) {
+		int n = Math.min(LOAD_BATCH_POINTS, points.remaining() / 2);
+		for (int i = 0; i < n; i++) {
+		    xs[i] = points.get();
+		    ys[i] = points.get();
+		}
+		model.addPoints(xs, ys, n);
+	    }
+	}
+    }
+
+
+    /**
+     * Adds every point of the file to a point cloud, with the same checks as
+     * Model.addPoint(). Repeated points are skipped.
+     *
+     * @throws IllegalArgumentException if a point does not reside in quadrant
+     * I of the plane. The points before it have been added.
+     */
+    public void loadInto(PointCloud cloud) {
+	cloud.ensureCapacity(capacityFor(cloud.size()));
+
+	for (IntBuffer region : regions) {
+	    int limit = region.limit();
+	    for (int i = 0; i < limit; i += 2) {
+		int x = region.get(i);
+		int y = region.get(i + 1);
+		Model.checkQuadrant(x, y);
+		cloud.add(x, y);
+	    }
+	}
+    }
+
+
+    /**
+     * Adds every point of the file to a streaming hull, which then holds the
+     * hull of the file without ever holding its points.
+     *
+     * @throws IllegalArgumentException if a point does not reside in quadrant
+     * I of the plane. The points before it have been added.
+     */
+    public void loadInto(StreamingHull stream) {
+	for (IntBuffer region : regions) {
+	    int limit = region.limit();
+	    for (int i = 0; i < limit; i += 2) {
+		stream.add(region.get(i), region.get(i + 1));
+	    }
+	}
+    }
+
+
+    /**
+     * Closes the file. The mapped regions stay valid until they are garbage
+     * collected, but the points should no longer be read.
+     */
+    @Override
+    public void close() throws IOException {
+	channel.close();
+    }
+
+
+    /**
+     * @return The capacity a cloud of the given size needs to take every
+     * point of the file, or as much as an array can hold if that is less.
+     */
+    private int capacityFor(int size) {
+	return (int) Math.min(size + count, Integer.MAX_VALUE - 8);
+    }
+
+
+    /** @return The position of a point's x-coordinate within its region. */
+    private static int offset(long index) {
+	return (int) (index & ((1L << REGION_SHIFT) - 1)) * 2;
+    }
+
+
+    /** @throws IndexOutOfBoundsException if the index is out of bounds. */
+    private void checkIndex(long index) {
+	if (index < 0 || index >= count) throw new IndexOutOfBoundsException(
+		"Index: " + index + ", Size: " + count);
+    }
+}
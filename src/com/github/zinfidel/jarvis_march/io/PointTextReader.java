@@ -0,0 +1,342 @@
+package com.github.zinfidel.jarvis_march.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+/**
+ * Reads points from text, one point per line: two integers separated by a
+ * comma, by whitespace, or both ("x,y", "x y", "x, y" or "x\ty"). Blank lines
+ * and lines starting with '#' are skipped, and so is a first line that does
+ * not start with a number, i.e. a header such as "x,y".
+ *
+ * The text is parsed straight from the bytes of a buffer (memory mapped, for
+ * files), without creating strings. Large inputs are cut into chunks at line
+ * breaks, and the chunks are parsed in parallel on the common pool. The
+ * points are then added in order, with the same checks as Model.addPoint().
+ */
+public class PointTextReader {
+
+    /** The number of bytes parsed as one task. */
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    /** The number of bytes read at a time when looking for a line break. */
+    private static final int SCAN_SIZE = 1 << 10;
+
+    /** Static utility class - no instances. */
+    private PointTextReader() {
+    }
+
+
+    /**
+     * Reads the points of a text file into a model.
+     *
+     * @throws IOException if the file can not be read or a line is malformed.
+     * No points have been added then.
+     * @throws IllegalArgumentException if a point does not reside in quadrant
+     * I of the plane. The points before it have been added.
+     */
+    public static void read(Path path, Model model) throws IOException {
+	for (Chunk chunk : parse(path)) {
+	    for (int i = 0; i < chunk.size; i++) {
+		model.addPoint(chunk.xs[i], chunk.ys[i]);
+	    }
+	}
+    }
+
+
+    /**
+     * Reads the points of a text file into a point cloud. Repeated points are
+     * skipped.
+     *
+     * @see #read(Path, Model)
+     */
+    public static void read(Path path, PointCloud cloud) throws IOException {
+	for (Chunk chunk : parse(path)) {
+	    for (int i = 0; i < chunk.size; i++) {
+		Model.checkQuadrant(chunk.xs[i], chunk.ys[i]);
+		cloud.add(chunk.xs[i], chunk.ys[i]);
+	    }
+	}
+    }
+
+
+    /**
+     * Reads the points of text in a buffer (e.g. US-ASCII or UTF-8) into a
+     * model. The remaining bytes of the buffer are read, but its position is
+     * not changed.
+     *
+     * @see #read(Path, Model)
+     */
+    public static void read(ByteBuffer text, Model model) throws IOException {
+	for (Chunk chunk : parse(text)) {
+	    for (int i = 0; i < chunk.size; i++) {
+		model.addPoint(chunk.xs[i], chunk.ys[i]);
+	    }
+	}
+    }
+
+
+    /**
+     * Reads the points of text in a buffer into a point cloud. Repeated points
+     * are skipped.
+     *
+     * @see #read(ByteBuffer, Model)
+     */
+    public static void read(ByteBuffer text, PointCloud cloud)
+	    throws IOException {
+	for (Chunk chunk : parse(text)) {
+	    for (int i = 0; i < chunk.size; i++) {
+		Model.checkQuadrant(chunk.xs[i], chunk.ys[i]);
+		cloud.add(chunk.xs[i], chunk.ys[i]);
+	    }
+	}
+    }
+
+
+    /** @return The parsed chunks of a file, in order. */
+    private static List<Chunk> parse(Path path) throws IOException {
+	try (FileChannel channel = FileChannel.open(path,
+		StandardOpenOption.READ)) {
+	    long size = channel.size();
+
+	    // Cut the file after the first line break past each chunk size.
+	    List<Callable<Chunk>> tasks = new ArrayList<Callable<Chunk>>();
+	    long start = 0;
+	    while (start < size) {
+		long end = nextLine(channel, Math.min(size, start + CHUNK_SIZE));
+		ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY,
+					       start, end - start);
+		long offset = start;
+		tasks.add(() -> parse(bytes, offset));
+		start = end;
+	    }
+
+	    return invokeAll(tasks);
+	}
+    }
+
+
+    /** @return The parsed chunks of a buffer, in order. */
+    private static List<Chunk> parse(ByteBuffer text) throws IOException {
+	ByteBuffer bytes = text.slice();
+	int size = bytes.limit();
+
+	// Cut the text after the first line break past each chunk size.
+	List<Callable<Chunk>> tasks = new ArrayList<Callable<Chunk>>();
+	int start = 0;
+	while (start < size) {
+	    int end = (int) Math.min(size, (long) start + CHUNK_SIZE);
+	    while (end < size && bytes.get(end - 1) != '\n') end++;
+
+	    ByteBuffer chunk = bytes.duplicate();
+	    chunk.position(start).limit(end);
+	    ByteBuffer slice = chunk.slice();
+	    long offset = start;
+	    tasks.add(() -> parse(slice, offset));
+	    start = end;
+	}
+
+	return invokeAll(tasks);
+    }
+
+
+    /**
+     * Finds the start of the line after a position of a file.
+     *
+     * @return The position after the first line break at or after pos - 1,
+     * or the end of the file.
+     */
+    private static long nextLine(FileChannel channel, long pos)
+	    throws IOException {
+	long size = channel.size();
+	if (pos >= size) return size;
+
+	ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+	pos--;
+	while (pos < size) {
+	    scan.clear();
+	    int read = channel.read(scan, pos);
+	    if (read < 0) break;
+	    for (int i = 0; i < read; i++) {
+		if (scan.get(i) == '\n') return pos + i + 1;
+	    }
+	    pos += read;
+	}
+	return size;
+    }
+
+
+    /**
+     * Runs the parse tasks, in parallel if there are several.
+     *
+     * @return The parsed chunks, in order.
+     */
+    private static List<Chunk> invokeAll(List<Callable<Chunk>> tasks)
+	    throws IOException {
+	List<Chunk> chunks = new ArrayList<Chunk>(tasks.size());
+
+	try {
+	    if (tasks.size() == 1) {
+		chunks.add(tasks.get(0).call());
+	    } else {
+		for (Future<Chunk> future
+			: ForkJoinPool.commonPool().invokeAll(tasks)) {
+		    chunks.add(future.get());
+		}
+	    }
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IOException("Interrupted while reading points.", e);
+	} catch (Exception e) {
+	    // Malformed lines are reported by the chunks, so only the
+	    // unexpected gets here.
+	    Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+	    if (cause instanceof Error) throw (Error) cause;
+	    throw new IllegalStateException(cause);
+	}
+
+	// Report the first malformed line, if any.
+	for (Chunk chunk : chunks) {
+	    if (chunk.failure != null) throw chunk.failure;
+	}
+	return chunks;
+    }
+
+
+    /**
+     * Parses the lines of a chunk of text. The chunk must start at the start
+     * of a line, and end at the end of one.
+     *
+     * @param bytes The chunk, from position 0 to its limit.
+     * @param offset The position of the chunk within the text.
+     * @return The parsed points, or the first malformed line.
+     */
+    private static Chunk parse(ByteBuffer bytes, long offset) {
+	Chunk chunk = new Chunk();
+	int end = bytes.limit();
+	int i = 0;
+	boolean first = offset == 0;
+
+	while (i < end) {
+	    i = skipBlanks(bytes, i, end);
+	    if (i == end) break;
+
+	    byte b = bytes.get(i);
+	    if (b == '\n') {
+		i++;
+		continue;
+	    }
+
+	    // Comments, and a header on the first line.
+	    if (b == '#' || (first && !isNumberStart(b))) {
+		first = false;
+		while (i < end && bytes.get(i) != '\n') i++;
+		continue;
+	    }
+	    first = false;
+
+	    long start = i;
+
+	    // The x-coordinate.
+	    long x = 0;
+	    boolean negative = b == '-';
+	    if (b == '-' || b == '+') i++;
+	    int digits = i;
+	    while (i < end && (b = bytes.get(i)) >= '0' && b <= '9') {
+		x = x * 10 + (b - '0');
+		if (x > Integer.MAX_VALUE + 1L) break;
+		i++;
+	    }
+	    if (negative) x = -x;
+	    if (i == digits || x > Integer.MAX_VALUE || x < Integer.MIN_VALUE)
+		return chunk.fail(offset + start);
+
+	    // The separator: a comma, whitespace, or both.
+	    int separator = i;
+	    i = skipBlanks(bytes, i, end);
+	    if (i < end && bytes.get(i) == ',') i = skipBlanks(bytes, i + 1, end);
+	    if (i == separator || i == end) return chunk.fail(offset + start);
+
+	    // The y-coordinate.
+	    long y = 0;
+	    b = bytes.get(i);
+	    negative = b == '-';
+	    if (b == '-' || b == '+') i++;
+	    digits = i;
+	    while (i < end && (b = bytes.get(i)) >= '0' && b <= '9') {
+		y = y * 10 + (b - '0');
+		if (y > Integer.MAX_VALUE + 1L) break;
+		i++;
+	    }
+	    if (negative) y = -y;
+	    if (i == digits || y > Integer.MAX_VALUE || y < Integer.MIN_VALUE)
+		return chunk.fail(offset + start);
+
+	    // Nothing else but the line break (and maybe blanks).
+	    i = skipBlanks(bytes, i, end);
+	    if (i < end && bytes.get(i) != '\n') return chunk.fail(offset + start);
+
+	    chunk.add((int) x, (int) y);
+	}
+
+	return chunk;
+    }
+
+
+    /** @return The position of the first byte that is not a blank. */
+    private static int skipBlanks(ByteBuffer bytes, int i, int end) {
+	while (i < end) {
+	    byte b = bytes.get(i);
+	    if (b != ' ' && b != '\t' && b != '\r') break;
+	    i++;
+	}
+	return i;
+    }
+
+
+    /** @return True if a number can start with the byte. */
+    private static boolean isNumberStart(byte b) {
+	return (b >= '0' && b <= '9') || b == '-' || b == '+';
+    }
+
+
+    /** The points parsed from a chunk, in order. */
+    private static class Chunk {
+
+	int[] xs = new int[16];
+	int[] ys = new int[16];
+	int size = 0;
+
+	/** The first malformed line of the chunk, or null if there is none. */
+	IOException failure = null;
+
+	/** Records a malformed line at a position. */
+	Chunk fail(long position) {
+	    failure = new IOException(
+		    "Malformed point at byte " + position + ".");
+	    return this;
+	}
+
+	void add(int x, int y) {
+	    if (size == xs.length) {
+		xs = Arrays.copyOf(xs, size * 2);
+		ys = Arrays.copyOf(ys, size * 2);
+	    }
+	    xs[size] = x;
+	    ys[size] = y;
+	    size++;
+	}
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Classes that read and write point clouds from and to files.
+ */
+package com.github.zinfidel.jarvis_march.io;
\ No newline at end of file
@@ -0,0 +1,270 @@
+package com.github.zinfidel.jarvis_march.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Aggregate metrics of hull solves and model mutations, exposed through JMX
+ * (see HullMetricsMBean) as "com.github.zinfidel.jarvis_march:type=HullMetrics".
+ *
+ * Nothing is recorded until the metrics are registered with register(), and
+ * until then recording costs a single check of a flag. Once registered, a
+ * solve or mutation costs two reads of the clock and a few atomic additions.
+ */
+public class HullMetrics implements HullMetricsMBean {
+
+    /** The name the metrics are registered under. */
+    public static final String OBJECT_NAME =
+	    "com.github.zinfidel.jarvis_march:type=HullMetrics";
+
+    /** The one instance, as there is one JMX name. */
+    private static final HullMetrics INSTANCE = new HullMetrics();
+
+    /** True while registered. */
+    private static volatile boolean enabled = false;
+
+    private final LatencyHistogram solves = new LatencyHistogram();
+    private final LatencyHistogram mutations = new LatencyHistogram();
+    private final LongAdder failedSolves = new LongAdder();
+    private final LongAdder solvedPoints = new LongAdder();
+    private final LongAdder bulkLoads = new LongAdder();
+    private final LongAdder bulkLoadedPoints = new LongAdder();
+    private final LongAdder bulkLoadNanos = new LongAdder();
+
+    /** When the metrics were registered or reset. */
+    private volatile long since = System.nanoTime();
+
+
+    /** Singleton - see getInstance(). */
+    private HullMetrics() {
+    }
+
+
+    /** @return The metrics. */
+    public static HullMetrics getInstance() {
+	return INSTANCE;
+    }
+
+
+    /**
+     * Registers the metrics with the platform MBean server, and starts
+     * recording. Registering again does nothing.
+     *
+     * @throws IllegalStateException if the metrics can not be registered.
+     */
+    public static synchronized void register() {
+	if (enabled) return;
+
+	try {
+	    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	    server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+	} catch (JMException e) {
+	    throw new IllegalStateException(
+		    "The hull metrics could not be registered.", e);
+	}
+
+	INSTANCE.reset();
+	enabled = true;
+    }
+
+
+    /**
+     * Stops recording, and unregisters the metrics from the platform MBean
+     * server. Unregistering when not registered does nothing.
+     */
+    public static synchronized void unregister() {
+	if (!enabled) return;
+	enabled = false;
+
+	try {
+	    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	    server.unregisterMBean(new ObjectName(OBJECT_NAME));
+	} catch (JMException e) {
+	    // Unregistered by someone else already.
+	}
+    }
+
+
+    /** @return True if solves and mutations are being recorded. */
+    public static boolean isEnabled() {
+	return enabled;
+    }
+
+
+    /**
+     * Records a solve, if enabled.
+     *
+     * @param nanos How long the solve took.
+     * @param points The number of points in the model.
+     * @param hullSize The number of hull points, or 0 if the solve failed.
+     */
+    public static void solved(long nanos, int points, int hullSize) {
+	if (!enabled) return;
+
+	INSTANCE.solves.record(nanos);
+	INSTANCE.solvedPoints.add(points);
+	if (hullSize == 0) INSTANCE.failedSolves.increment();
+    }
+
+
+    /**
+     * Records a point added to or removed from a model, if enabled.
+     *
+     * @param nanos How long the mutation took.
+     */
+    public static void mutated(long nanos) {
+	if (!enabled) return;
+
+	INSTANCE.mutations.record(nanos);
+    }
+
+
+    /**
+     * Records points added to a model all at once, if enabled. A bulk load
+     * is not a mutation: one sample for a million points would say nothing
+     * about the latency of a mutation, so bulk loads are counted apart.
+     *
+     * @param nanos How long the load took.
+     * @param points The number of points loaded.
+     */
+    public static void bulkLoaded(long nanos, int points) {
+	if (!enabled) return;
+
+	INSTANCE.bulkLoads.increment();
+	INSTANCE.bulkLoadedPoints.add(points);
+	INSTANCE.bulkLoadNanos.add(nanos);
+    }
+
+
+    @Override
+    public long getSolveCount() {
+	return solves.getCount();
+    }
+
+
+    @Override
+    public long getFailedSolveCount() {
+	return failedSolves.sum();
+    }
+
+
+    @Override
+    public long getSolvedPointCount() {
+	return solvedPoints.sum();
+    }
+
+
+    @Override
+    public double getSolveThroughput() {
+	return perSecond(solves.getCount());
+    }
+
+
+    @Override
+    public double getPointThroughput() {
+	return perSecond(solvedPoints.sum());
+    }
+
+
+    @Override
+    public double getSolveLatencyMean() {
+	return solves.getMean() / 1000;
+    }
+
+
+    @Override
+    public double getSolveLatencyP50() {
+	return solves.getPercentile(0.5) / 1000d;
+    }
+
+
+    @Override
+    public double getSolveLatencyP99() {
+	return solves.getPercentile(0.99) / 1000d;
+    }
+
+
+    @Override
+    public long[] getSolveLatencyHistogram() {
+	return solves.getCounts();
+    }
+
+
+    @Override
+    public long getMutationCount() {
+	return mutations.getCount();
+    }
+
+
+    @Override
+    public double getMutationThroughput() {
+	return perSecond(mutations.getCount());
+    }
+
+
+    @Override
+    public double getMutationLatencyMean() {
+	return mutations.getMean() / 1000;
+    }
+
+
+    @Override
+    public double getMutationLatencyP50() {
+	return mutations.getPercentile(0.5) / 1000d;
+    }
+
+
+    @Override
+    public double getMutationLatencyP99() {
+	return mutations.getPercentile(0.99) / 1000d;
+    }
+
+
+    @Override
+    public long[] getMutationLatencyHistogram() {
+	return mutations.getCounts();
+    }
+
+
+    @Override
+    public long getBulkLoadCount() {
+	return bulkLoads.sum();
+    }
+
+
+    @Override
+    public long getBulkLoadedPointCount() {
+	return bulkLoadedPoints.sum();
+    }
+
+
+    @Override
+    public double getBulkLoadLatencyPerPoint() {
+	long points = bulkLoadedPoints.sum();
+	return points == 0 ? 0 : bulkLoadNanos.sum() / 1000d / points;
+    }
+
+
+    @Override
+    public void reset() {
+	solves.reset();
+	mutations.reset();
+	failedSolves.reset();
+	solvedPoints.reset();
+	bulkLoads.reset();
+	bulkLoadedPoints.reset();
+	bulkLoadNanos.reset();
+	since = System.nanoTime();
+    }
+
+
+    /** @return A count per second since the metrics were registered or reset. */
+    private double perSecond(long count) {
+	double seconds = (System.nanoTime() - since) / 1e9;
+	return seconds <= 0 ? 0 : count / seconds;
+    }
+}
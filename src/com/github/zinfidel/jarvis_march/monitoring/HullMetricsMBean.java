@@ -0,0 +1,72 @@
+package com.github.zinfidel.jarvis_march.monitoring;
+
+/**
+ * The management interface of HullMetrics. Latencies are in microseconds,
+ * throughputs per second since the metrics were registered or reset.
+ * Percentiles are upper bounds, see getSolveLatencyHistogram().
+ */
+public interface HullMetricsMBean {
+
+    /** @return The number of solves, failed or not. */
+    long getSolveCount();
+
+    /** @return The number of solves that found no hull. */
+    long getFailedSolveCount();
+
+    /** @return The number of points solved, over all solves. */
+    long getSolvedPointCount();
+
+    /** @return Solves per second. */
+    double getSolveThroughput();
+
+    /** @return Points solved per second. */
+    double getPointThroughput();
+
+    /** @return The mean latency of a solve. */
+    double getSolveLatencyMean();
+
+    /** @return The median latency of a solve. */
+    double getSolveLatencyP50();
+
+    /** @return The 99th percentile latency of a solve. */
+    double getSolveLatencyP99();
+
+    /**
+     * @return The number of solves by latency: entry i counts the solves of
+     * up to 2^i nanoseconds, and more than half of that.
+     */
+    long[] getSolveLatencyHistogram();
+
+    /**
+     * @return The number of points added to or removed from models one at a
+     * time. Bulk loads are counted apart.
+     */
+    long getMutationCount();
+
+    /** @return Model mutations per second. */
+    double getMutationThroughput();
+
+    /** @return The mean latency of a model mutation. */
+    double getMutationLatencyMean();
+
+    /** @return The median latency of a model mutation. */
+    double getMutationLatencyP50();
+
+    /** @return The 99th percentile latency of a model mutation. */
+    double getMutationLatencyP99();
+
+    /** @return The number of model mutations by latency, as for solves. */
+    long[] getMutationLatencyHistogram();
+
+    /** @return The number of bulk loads of points into models. */
+    long getBulkLoadCount();
+
+    /** @return The number of points loaded, over all bulk loads. */
+    long getBulkLoadedPointCount();
+
+    /** @return The mean latency of a bulk load, per point loaded. */
+    double getBulkLoadLatencyPerPoint();
+
+    /** Forgets everything recorded so far. */
+    void reset();
+}
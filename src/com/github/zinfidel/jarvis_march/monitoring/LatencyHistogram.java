@@ -0,0 +1,97 @@
+package com.github.zinfidel.jarvis_march.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies, in buckets that double in width: bucket i counts
+ * the latencies of up to 2^i nanoseconds (and more than 2^(i-1)). Recording a
+ * latency is a couple of atomic additions, from any number of threads.
+ */
+class LatencyHistogram {
+
+    /** The number of buckets, enough for any latency. */
+    static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+
+    /** Records a latency, in nanoseconds. */
+    void record(long nanos) {
+	buckets.incrementAndGet(bucket(nanos));
+	count.increment();
+	total.add(nanos);
+    }
+
+
+    /** @return The number of latencies recorded. */
+    long getCount() {
+	return count.sum();
+    }
+
+
+    /** @return The mean latency in nanoseconds, or 0 if there is none. */
+    double getMean() {
+	long n = count.sum();
+	return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+
+    /**
+     * Provides a latency that a fraction of all latencies are at most, as the
+     * upper bound of its bucket. So it is never too low, but may be up to
+     * twice too high.
+     *
+     * @param fraction The fraction, e.g. 0.99 for the 99th percentile.
+     * @return The latency in nanoseconds, or 0 if there is none.
+     */
+    long getPercentile(double fraction) {
+	long[] counts = getCounts();
+	long n = 0;
+	for (long c : counts) n += c;
+	if (n == 0) return 0;
+
+	long wanted = (long) Math.ceil(fraction * n);
+	long seen = 0;
+	for (int i = 0; i < BUCKETS; i++) {
+	    seen += counts[i];
+	    if (seen >= Math.max(wanted, 1)) return upperBound(i);
+	}
+	return Long.MAX_VALUE;
+    }
+
+
+    /** @return The count of each bucket. */
+    long[] getCounts() {
+	long[] counts = new long[BUCKETS];
+	for (int i = 0; i < BUCKETS; i++) {
+	    counts[i] = buckets.get(i);
+	}
+	return counts;
+    }
+
+
+    /** Forgets all latencies. */
+    void reset() {
+	for (int i = 0; i < BUCKETS; i++) {
+	    buckets.set(i, 0);
+	}
+	count.reset();
+	total.reset();
+    }
+
+
+    /** @return The bucket of a latency. */
+    static int bucket(long nanos) {
+	if (nanos <= 1) return 0;
+	return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+    }
+
+
+    /** @return The greatest latency in a bucket. */
+    static long upperBound(int bucket) {
+	return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+    }
+}
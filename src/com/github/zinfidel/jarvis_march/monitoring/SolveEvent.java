@@ -0,0 +1,40 @@
+package com.github.zinfidel.jarvis_march.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one solve of a convex hull. Every solver
+ * emits one when a recording has the event enabled, which it is by default.
+ * The event's duration is the time the solve took.
+ *
+ * When no recording is running, the event is never committed, and creating
+ * one is optimized away.
+ */
+@Name("com.github.zinfidel.jarvis_march.Solve")
+@Label("Hull Solve")
+@Description("A convex hull solved by one of the hull solvers.")
+@Category("Jarvis March")
+@StackTrace(false)
+public class SolveEvent extends Event {
+
+    @Label("Solver")
+    @Description("The simple class name of the solver.")
+    public String solver;
+
+    @Label("Points")
+    @Description("The number of points in the model.")
+    public int points;
+
+    @Label("Hull Size")
+    @Description("The number of hull points, or 0 if the solve failed.")
+    public int hullSize;
+
+    @Label("Solved")
+    @Description("False if the points did not form a hull.")
+    public boolean solved;
+}
@@ -0,0 +1,5 @@
+/**
+ * Classes that make the work of the program visible to monitoring tools:
+ * Java Flight Recorder events and JMX metrics.
+ */
+package com.github.zinfidel.jarvis_march.monitoring;
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.github.zinfidel.jarvis_march.visualization;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.github.zinfidel.jarvis_march.geometry.PointCloud;
+
+/**
+ * Draws a point cloud as a density raster: every pixel is shaded by the
+ * number of points whose dot covers it. Once there are many more points than
+ * pixels, that is far less work than drawing each dot, and it still shows
+ * where the points are dense, where the dots would just pile up.
+ *
+ * The points are counted per pixel in parallel: the cloud is split into a
+ * few ranges, each range is counted into a raster of its own, and the
+ * rasters are summed up. Each raster is as large as the image, so there are
+ * never more than a handful of them. The counts are then spread over the
+ * size of a dot, with running sums along the rows and then down the columns,
+ * also in parallel.
+ */
+class DensityRaster {
+
+    /** The fewest points worth counting as a task of their own. */
+    private static final int MIN_RANGE = 1 << 16;
+
+    /** The most ranges counted in parallel, each into a raster of its own. */
+    private static final int MAX_RANGES = 4;
+
+    /** The number of columns summed down the rows as a task of their own. */
+    private static final int STRIP_WIDTH = 256;
+
+    /** The opacity of a pixel covered by a single dot, out of 255. */
+    private static final int MIN_ALPHA = 144;
+
+    /** Static utility class - no instances. */
+    private DensityRaster() {
+    }
+
+
+    /**
+     * Draws a point cloud into an image, replacing all of its contents. The
+     * pixels covered by dots are black, more opaque the more dots cover them
+     * (on a log scale). The rest are transparent. The dots are squares as
+     * wide as the round dots of GeometryDrawer.
+     *
+     * @param cloud The points to draw.
+     * @param image The image to draw to, of TYPE_INT_ARGB_PRE.
+     * @param scale The number of image pixels per unit of the plane.
+     * @param height The height of the plane that is drawn, to flip the points
+     * with (see GeometryDrawer.Flip()).
+     */
+    static void draw(PointCloud cloud, BufferedImage image, double scale,
+		     int height) {
+	int width = image.getWidth();
+	int rows = image.getHeight();
+	// A range per thread, unless there are too few points for that.
+	int ranges = Math.min(ForkJoinPool.getCommonPoolParallelism(),
+			      Math.min(MAX_RANGES, cloud.size() / MIN_RANGE));
+	int[] counts = count(cloud, width, rows, scale, height,
+			     Math.max(1, ranges));
+	int half = (int) Math.round(GeometryDrawer.POINT_WIDTH * scale / 2d);
+	counts = spread(counts, width, rows, half);
+
+	int max = 0;
+	for (int count : counts) {
+	    max = Math.max(max, count);
+	}
+
+	// Premultiplied black is just the alpha.
+	double logMax = Math.log(max);
+	int[] pixels = new int[counts.length];
+	for (int i = 0; i < counts.length; i++) {
+	    if (counts[i] == 0) continue;
+
+	    double density = max > 1 ? Math.log(counts[i]) / logMax : 0d;
+	    int alpha = MIN_ALPHA + (int) ((255 - MIN_ALPHA) * density);
+	    pixels[i] = alpha << 24;
+	}
+
+	image.getRaster().setDataElements(0, 0, width, rows, pixels);
+    }
+
+
+    /**
+     * Counts the points per pixel, in parallel.
+     *
+     * @param ranges The number of ranges to split the cloud into.
+     * @return The number of points in each pixel, row by row.
+     */
+    static int[] count(PointCloud cloud, int width, int rows, double scale,
+		       int height, int ranges) {
+	int[] xs = cloud.getXs();
+	int[] ys = cloud.getYs();
+	int size = cloud.size();
+
+	int[][] partials = new int[ranges][];
+
+	IntStream.range(0, ranges).parallel().forEach(r -> {
+	    int[] counts = new int[width * rows];
+	    int end = (int) ((long) size * (r + 1) / ranges);
+	    for (int i = (int) ((long) size * r / ranges); i < end; i++) {
+		int flipped = height - ys[i];
+		if (flipped < 0) continue;
+
+		int px = (int) (xs[i] * scale);
+		int py = (int) (flipped * scale);
+		if (px < width && py < rows) counts[py * width + px]++;
+	    }
+	    partials[r] = counts;
+	});
+
+	// Sum the partial counts into the first.
+	int[] counts = partials[0];
+	for (int r = 1; r < ranges; r++) {
+	    int[] partial = partials[r];
+	    for (int i = 0; i < counts.length; i++) {
+		counts[i] += partial[i];
+	    }
+	}
+	return counts;
+    }
+
+
+    /**
+     * Spreads the counts of each pixel over the square around it, i.e. sums
+     * up the counts in the square around each pixel. The sum is separable:
+     * first along the rows, then down the columns, each as a running sum.
+     *
+     * @param half The distance from a pixel to the edges of its square.
+     * @return The sums, row by row.
+     */
+    static int[] spread(int[] counts, int width, int rows, int half) {
+	int[] across = new int[counts.length];
+
+	// Running sums along each row.
+	IntStream.range(0, rows).parallel().forEach(y -> {
+	    int row = y * width;
+	    int sum = 0;
+	    for (int x = 0; x < width + half; x++) {
+		int leaving = x - 2 * half - 1;
+		if (x < width) sum += counts[row + x];
+		if (leaving >= 0) sum -= counts[row + leaving];
+		if (x >= half) across[row + x - half] = sum;
+	    }
+	});
+
+	// Running sums of those down each column. The columns are summed in
+	// strips, a row of the strip at a time, to read the rows in order.
+	int[] sums = new int[counts.length];
+	int strips = (width + STRIP_WIDTH - 1) / STRIP_WIDTH;
+	IntStream.range(0, strips).parallel().forEach(s -> {
+	    int from = s * STRIP_WIDTH;
+	    int to = Math.min(width, from + STRIP_WIDTH);
+	    int[] sum = new int[to - from];
+	    for (int y = 0; y < rows + half; y++) {
+		int row = y * width;
+		int leaving = row - (2 * half + 1) * width;
+		int target = row - half * width;
+		for (int x = from; x < to; x++) {
+		    if (y < rows) sum[x - from] += across[row + x];
+		    if (leaving >= 0) sum[x - from] -= across[leaving + x];
+		    if (target >= 0) sums[target + x] = sum[x - from];
+		}
+	    }
+	});
+	return sums;
+    }
+}
@@ -14,7 +14,7 @@ import com.github.zinfidel.jarvis_march.geometry.Vector;
 
 class GeometryDrawer {
     
-    private static final int POINT_WIDTH = 6;
+    static final int POINT_WIDTH = 6;
     private static final int ARC_DIAMETER = 40;
     private static final float DASH_MITER = 10f;
     
@@ -1,10 +1,11 @@
 package com.github.zinfidel.jarvis_march.visualization;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.util.Set;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 import javax.swing.border.EtchedBorder;
@@ -21,10 +22,28 @@ public class GeometryPanel extends JPanel {
 
     private static final long serialVersionUID = 5897008749918594368L;
     
+    /** The default number of points above which a density raster is drawn. */
+    public static final int DEFAULT_RASTER_THRESHOLD = 50000;
+    
     // The model and algorithm elements to draw.
     private Model model = null;
     private JarvisMarcher marcher = null;
 
+    /** A hull to draw in place of the model's, or null to draw the model's. */
+    private ConvexHull hull = null;
+
+    /**
+     * The points and the Y-Axis, drawn once, as they only change with the
+     * model. Null until first drawn.
+     */
+    private BufferedImage pointLayer = null;
+
+    /** The model's mod count when the point layer was drawn. */
+    private int pointLayerModCount;
+
+    /** The number of points above which a density raster is drawn. */
+    private int rasterThreshold = DEFAULT_RASTER_THRESHOLD;
+
     
     /**
      * Construct a geometry panel with a white background and nice border.
@@ -38,7 +57,8 @@ public class GeometryPanel extends JPanel {
     
     /**
      * Draws elements from the model, convex hull, and algorithm to the
-     * panel in various exciting colors and animations.
+     * panel in various exciting colors and animations. The points are drawn
+     * from a cached image, see getPointLayer().
      */
     @Override
     protected void paintComponent(Graphics g) {
@@ -53,22 +73,14 @@ public class GeometryPanel extends JPanel {
 		new RenderingHints(RenderingHints.KEY_ANTIALIASING,
 				   RenderingHints.VALUE_ANTIALIAS_ON ));
 	
-	Set<Point> points = model.getPoints();
-	
-	// Draw all of the points.
-	g2d.setColor(Color.BLACK);
-	for (Point point : points) {
-	    GeometryDrawer.draw(point, g);
-	}
-	
-	// Draw the Y-Axis through the left-most point.
-	if (!points.isEmpty()) {
-	    g2d.setColor(Color.BLUE);
-	    GeometryDrawer.drawYAxis(model.getLeftmost(), g2d);
+	// Draw the points and the Y-Axis, as cached.
+	if (getWidth() > 0 && getHeight() > 0) {
+	    g2d.drawImage(getPointLayer(g2d), 0, 0, getWidth(), getHeight(),
+			  null);
 	}
 
 	// Render the convex hull elements, if there is a hull.
-	ConvexHull hull = model.getHull();
+	ConvexHull hull = this.hull != null ? this.hull : model.getHull();
 	if (hull != null) {
 	    
 	    // Draw vectors.
@@ -105,9 +117,105 @@ public class GeometryPanel extends JPanel {
     }
     
     
+    /**
+     * Provides the point layer: all of the points, and the Y-Axis through the
+     * left-most point. It is drawn into an image, which is reused until the
+     * model changes or the panel is resized. So repaints during an animation
+     * only draw the hull and the vectors, however many points there are.
+     * 
+     * Above the raster threshold, the points are drawn as a density raster
+     * (see DensityRaster) rather than one by one.
+     * 
+     * @param g The graphics context the layer is for. The image matches its
+     * scale, so that the layer is as sharp as the rest on HiDPI screens.
+     * @return The point layer, at the size of the panel times the scale.
+     */
+    private BufferedImage getPointLayer(Graphics2D g) {
+	double scale = g.getTransform().getScaleX();
+	int width = (int) Math.ceil(getWidth() * scale);
+	int height = (int) Math.ceil(getHeight() * scale);
+
+	boolean resized = pointLayer == null || pointLayer.getWidth() != width
+		|| pointLayer.getHeight() != height;
+	if (!resized && pointLayerModCount == model.getModCount())
+	    return pointLayer;
+
+	// Reuse the image if it fits.
+	if (resized) {
+	    pointLayer = new BufferedImage(width, height,
+					   BufferedImage.TYPE_INT_ARGB_PRE);
+	}
+
+	// The raster replaces the whole image, so it needs no clearing.
+	PointCloud cloud = model.getCloud();
+	boolean raster = cloud.size() > rasterThreshold;
+	if (raster) DensityRaster.draw(cloud, pointLayer, scale, getHeight());
+
+	Graphics2D layer = pointLayer.createGraphics();
+	try {
+	    if (!resized && !raster) {
+		layer.setComposite(AlphaComposite.Clear);
+		layer.fillRect(0, 0, width, height);
+		layer.setComposite(AlphaComposite.SrcOver);
+	    }
+	    layer.scale(scale, scale);
+	    layer.setRenderingHints(g.getRenderingHints());
+
+	    // Draw all of the points, unless they are rastered.
+	    if (!raster) {
+		layer.setColor(Color.BLACK);
+		for (Point point : model.getPoints()) {
+		    GeometryDrawer.draw(point, layer);
+		}
+	    }
+
+	    // Draw the Y-Axis through the left-most point.
+	    if (!cloud.isEmpty()) {
+		layer.setColor(Color.BLUE);
+		GeometryDrawer.drawYAxis(model.getLeftmost(), layer);
+	    }
+	} finally {
+	    layer.dispose();
+	}
+
+	pointLayerModCount = model.getModCount();
+	return pointLayer;
+    }
+    
+    
+    /** @return The number of points above which a density raster is drawn. */
+    public int getRasterThreshold() {
+	return rasterThreshold;
+    }
+
+
+    /**
+     * Set the number of points above which the points are drawn as a density
+     * raster: each pixel is shaded by the number of points in it. Below it,
+     * each point is drawn as a dot.
+     * 
+     * @param threshold The number of points, e.g. Integer.MAX_VALUE to always
+     * draw the points as dots.
+     */
+    public void setRasterThreshold(int threshold) {
+	rasterThreshold = threshold;
+	pointLayer = null;
+    }
+    
+    
     /** Set the model to be rendered. */
     public void setModel(Model model) {
 	this.model = model;
+	pointLayer = null;
+    }
+
+
+    /**
+     * Set a hull to be rendered in place of the model's, e.g. the latest hull
+     * of a WindowedHull. Set it to null to render the model's hull again.
+     */
+    public void setHull(ConvexHull hull) {
+	this.hull = hull;
     }
 
 
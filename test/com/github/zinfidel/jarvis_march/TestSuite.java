@@ -2,6 +2,9 @@ package com.github.zinfidel.jarvis_march;
 
 import com.github.zinfidel.jarvis_march.geometry.*;
 import com.github.zinfidel.jarvis_march.algorithm.*;
+import com.github.zinfidel.jarvis_march.io.*;
+import com.github.zinfidel.jarvis_march.monitoring.*;
+import com.github.zinfidel.jarvis_march.visualization.*;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -9,7 +12,16 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ TestConvexHull.class, TestModel.class, TestPoint.class,
-	TestVector.class, TestJarvisMarcher.class })
+	TestVector.class, TestOrientation.class, TestPointCloud.class,
+	TestOctagon.class, TestDynamicHull.class,
+	TestJarvisMarcher.class, TestHullSolver.class, TestChanSolver.class,
+	TestMonotoneChainSolver.class, TestQuickHullSolver.class,
+	TestSolverSelector.class, TestPointGenerator.class,
+	TestStreamingHull.class, TestWindowedHull.class,
+	TestBatchSolver.class, TestSolverStats.class,
+	TestPointFile.class, TestPointTextReader.class,
+	TestHullMetrics.class, TestSolveEvent.class,
+	TestDensityRaster.class })
 
 public class TestSuite {
 
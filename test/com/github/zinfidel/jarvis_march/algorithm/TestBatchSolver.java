@@ -0,0 +1,93 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestBatchSolver {
+
+    // A square with a point in the middle.
+    private static final List<Point> SQUARE = Arrays.asList(
+	    Point.ORIGIN, new Point(0, 4), new Point(2, 2),
+	    new Point(4, 4), new Point(4, 0));
+
+    // Points on a line.
+    private static final List<Point> LINE = Arrays.asList(
+	    Point.ORIGIN, new Point(1, 1), new Point(2, 2));
+
+    @Test
+    public final void testSolveAll() throws Exception {
+	ExecutorService executor = Executors.newFixedThreadPool(4);
+	try {
+	    List<List<Point>> sets = new ArrayList<List<Point>>();
+	    for (int i = 0; i < 100; i++) {
+		sets.add(i % 10 == 0 ? LINE : SQUARE);
+	    }
+	    sets.add(Arrays.asList(new Point(-1, 0)));
+
+	    List<BatchSolver.Result> results =
+		    new BatchSolver(executor).solveAll(sets);
+
+	    // Results come back in order, failed or not.
+	    assertEquals(101, results.size());
+	    for (int i = 0; i < 100; i++) {
+		BatchSolver.Result result = results.get(i);
+		if (i % 10 == 0) {
+		    assertFalse(result.isSolved());
+		    assertTrue(result.getFailure()
+			    instanceof DegenerateGeometryException);
+		} else {
+		    assertTrue(result.isSolved());
+		    assertNull(result.getFailure());
+		    assertEquals(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+					       new Point(4, 4), new Point(4, 0)),
+				 result.getHull().getPoints());
+		}
+	    }
+	    assertTrue(results.get(100).getFailure()
+		    instanceof IllegalArgumentException);
+
+	    // Asking a failed result for its hull throws its failure.
+	    try {
+		results.get(0).getHull();
+		Assert.fail();
+	    } catch (DegenerateGeometryException e) {
+		// Caught as expected.
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+    }
+
+    @Test
+    public final void testCommonPool() throws Exception {
+	List<BatchSolver.Result> results =
+		new BatchSolver().solveAll(Arrays.asList(SQUARE, SQUARE));
+	assertEquals(2, results.size());
+	assertEquals(4, results.get(1).getHull().getPoints().size());
+    }
+
+    @Test
+    public final void testVirtualThreads() throws Exception {
+	// Falls back to a cached pool on Javas without virtual threads.
+	ExecutorService executor = BatchSolver.newVirtualThreadExecutor();
+	try {
+	    List<BatchSolver.Result> results =
+		    new BatchSolver(executor).solveAll(Arrays.asList(LINE, SQUARE));
+	    assertFalse(results.get(0).isSolved());
+	    assertTrue(results.get(1).isSolved());
+	} finally {
+	    executor.shutdown();
+	}
+    }
+}
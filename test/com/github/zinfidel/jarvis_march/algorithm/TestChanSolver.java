@@ -0,0 +1,22 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestChanSolver {
+
+    @Test
+    public final void testTangent() {
+	// Anti-clockwise polygon, large enough to avoid the linear search.
+	int[] xs = { 10, 20, 25, 30, 30, 25, 20, 10, 5 };
+	int[] ys = { 10, 5, 6, 10, 20, 24, 25, 20, 15 };
+
+	// Everything else is clockwise from the tangent point.
+	assertEquals(6, ChanSolver.tangent(xs, ys, 0, xs.length, 0, 20));
+	assertEquals(1, ChanSolver.tangent(xs, ys, 0, xs.length, 40, 0));
+
+	// Collinear vertices - the farther one wins.
+	assertEquals(0, ChanSolver.tangent(xs, ys, 0, xs.length, 30, 0));
+    }
+}
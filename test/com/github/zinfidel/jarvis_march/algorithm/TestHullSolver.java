@@ -0,0 +1,139 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.github.zinfidel.jarvis_march.geometry.ConvexHull;
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+/** The behavior every solver shares, run on each of them. */
+@RunWith(Parameterized.class)
+public class TestHullSolver {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> solvers() {
+	return Arrays.asList(new Object[][] {
+	    { "JarvisMarcher",
+	      (Function<Model, HullSolver>) JarvisMarcher::new },
+	    { "ChanSolver",
+	      (Function<Model, HullSolver>) ChanSolver::new },
+	    { "MonotoneChainSolver",
+	      (Function<Model, HullSolver>) MonotoneChainSolver::new },
+	    { "QuickHullSolver",
+	      (Function<Model, HullSolver>) QuickHullSolver::new } });
+    }
+
+    // The solver under test, by name, and how to construct it.
+    private final Function<Model, HullSolver> solver;
+
+    // Instances to set up and test.
+    private static Model model;
+
+    public TestHullSolver(String name, Function<Model, HullSolver> solver) {
+	this.solver = solver;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    model = new Model();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test(timeout=3000)
+    public final void testSolve() {
+	// Testing points.
+	Point point24 = new Point(2,4);
+	Point point40 = new Point(4,0);
+
+	// Add triangle with point in center.
+	model.addPoint(Point.ORIGIN);
+	model.addPoint(point24);
+	model.addPoint(new Point(2,2));
+	model.addPoint(point40);
+
+	// Run the algorithm, the hull should be installed to the model.
+	ConvexHull hull = solver.apply(model).solve();
+	assertSame(hull, model.getHull());
+	assertTrue(hull.isClosed());
+
+	// Test Points
+	List<Point> points = hull.getPoints();
+	assertEquals(3, points.size());
+	assertEquals(Point.ORIGIN, points.get(0));
+	assertEquals(point24, points.get(1));
+	assertEquals(point40, points.get(2));
+    }
+
+    @Test(timeout=3000)
+    public final void testSolveMatchesJarvisMarcher() {
+	// Points on a circle make for a large hull, and many mini-hulls.
+	for (int n = 0; n < 5000; n++) {
+	    double theta = 2d * Math.PI * n / 5000d;
+	    model.addPoint(new Point((int) (10000 + 10000 * Math.cos(theta)),
+				     (int) (10000 + 10000 * Math.sin(theta))));
+	}
+
+	// Seeded, so that a failure can be reproduced.
+	int[] xs = new int[5000];
+	int[] ys = new int[5000];
+	PointGenerator.normalRandom(xs, ys, new Point(20000, 20000), 42);
+	model.addPoints(xs, ys, xs.length);
+
+	new JarvisMarcher(model).solve();
+	List<Point> expected = model.getHull().getPoints();
+
+	solver.apply(model).solve();
+	assertEquals(expected, model.getHull().getPoints());
+	assertEquals(model.getHull().getPoints().size(),
+		     model.getHull().getEdges().size());
+    }
+
+    @Test(timeout=3000)
+    public final void testColinearPoints() {
+	model.addPoint(new Point(0,1));
+	model.addPoint(new Point(1,1));
+	model.addPoint(new Point(2,1));
+
+	try {
+	    solver.apply(model).solve();
+	    Assert.fail();
+	} catch (DegenerateGeometryException e) {
+	    // Caught as expected.
+	}
+    }
+
+    @Test(timeout=3000)
+    public final void testNotEnoughPoints() {
+	// Empty, then a single point.
+	try {
+	    solver.apply(model).solve();
+	    Assert.fail();
+	} catch (DegenerateGeometryException e) {
+	    // Caught as expected.
+	}
+
+	model.addPoint(new Point(0,1));
+	try {
+	    solver.apply(model).solve();
+	    Assert.fail();
+	} catch (DegenerateGeometryException e) {
+	    // Caught as expected.
+	}
+    }
+}
@@ -2,7 +2,10 @@ package com.github.zinfidel.jarvis_march.algorithm;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 
 import junit.framework.Assert;
 
@@ -61,6 +64,198 @@ public class TestJarvisMarcher {
 	assertEquals(point40, points.get(2));
     }
     
+    @Test(timeout=3000)
+    public final void testSolveCollinearHullPoints() {
+	// Square with points along every edge, and one in the center.
+	for (int x = 0; x <= 4; x += 2) {
+	    for (int y = 0; y <= 4; y += 2) {
+		model.addPoint(new Point(x, y));
+	    }
+	}
+
+	new JarvisMarcher(model).solve();
+
+	// Only the corners are hull points, starting at the lower-left.
+	List<Point> points = model.getHull().getPoints();
+	assertEquals(4, points.size());
+	assertEquals(Point.ORIGIN, points.get(0));
+	assertEquals(new Point(0, 4), points.get(1));
+	assertEquals(new Point(4, 4), points.get(2));
+	assertEquals(new Point(4, 0), points.get(3));
+	assertTrue(model.getHull().isClosed());
+    }
+
+    @Test(timeout=3000)
+    public final void testSolveMatchesIterate() {
+	// Generate a cloud, and solve it step-wise with iterate().
+	Point bounds = new Point(640, 480);
+	for (int n = 0; n < 500; n++) {
+	    model.addPoint(PointGenerator.random(bounds));
+	}
+	JarvisMarcher marcher = new JarvisMarcher(model);
+	while (marcher.iterate());
+	List<Point> expected = model.getHull().getPoints();
+
+	// Solve it again all at once.
+	new JarvisMarcher(model).solve();
+	assertEquals(expected, model.getHull().getPoints());
+    }
+
+    @Test(timeout=10000)
+    public final void testSolveParallel() {
+	// Generate a cloud large enough to be split up.
+	Point bounds = new Point(100000, 100000);
+	while (model.getPoints().size() < 4 * JarvisMarcher.PARALLEL_THRESHOLD) {
+	    model.addPoint(PointGenerator.normalRandom(bounds));
+	}
+	new JarvisMarcher(model).solve();
+	List<Point> expected = model.getHull().getPoints();
+
+	// Solving in parallel must find exactly the same hull.
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    new JarvisMarcher(model, pool).solve();
+	    assertEquals(expected, model.getHull().getPoints());
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    @Test(timeout=3000)
+    public final void testSolvePartialHull() {
+	Point point24 = new Point(2,4);
+	Point point40 = new Point(4,0);
+	model.addPoint(Point.ORIGIN);
+	model.addPoint(point24);
+	model.addPoint(new Point(2,2));
+	model.addPoint(point40);
+
+	// Get part way through the march, then finish it with solve().
+	JarvisMarcher marcher = new JarvisMarcher(model);
+	do {
+	    marcher.iterate();
+	} while (model.getHull().getPoints().size() < 2);
+	marcher.iterate();
+	marcher.solve();
+
+	List<Point> points = model.getHull().getPoints();
+	assertTrue(model.getHull().isClosed());
+	assertEquals(3, points.size());
+	assertEquals(point24, points.get(1));
+	assertEquals(point40, points.get(2));
+	assertNull(marcher.getNextPoint());
+	assertNull(marcher.getBestPoint());
+    }
+
+    @Test(timeout=3000)
+    public final void testIterateBudget() {
+	Point bounds = new Point(640, 480);
+	for (int n = 0; n < 500; n++) {
+	    model.addPoint(PointGenerator.random(bounds));
+	}
+	new JarvisMarcher(model).solve();
+	List<Point> expected = model.getHull().getPoints();
+
+	// Each step to a vertex adds exactly one point to the hull.
+	JarvisMarcher marcher = new JarvisMarcher(model);
+	int steps = 0;
+	while (marcher.iterate(Long.MAX_VALUE, true)) {
+	    steps++;
+	    assertEquals(steps + 1, model.getHull().getPoints().size());
+	}
+	assertEquals(expected, model.getHull().getPoints());
+
+	// The tiniest budget still gets there, a few iterations at a time.
+	marcher = new JarvisMarcher(model);
+	while (marcher.iterate(0, false));
+	assertEquals(expected, model.getHull().getPoints());
+
+	// Steps to a vertex that run out of time pick up where they left
+	// off, and still add no more than one point each.
+	marcher = new JarvisMarcher(model);
+	int size = 1;
+	while (marcher.iterate(0, true)) {
+	    int added = model.getHull().getPoints().size() - size;
+	    assertTrue(added == 0 || added == 1);
+	    size += added;
+	}
+	assertEquals(expected, model.getHull().getPoints());
+    }
+
+    @Test(timeout=3000)
+    public final void testVertexListener() {
+	Point point24 = new Point(2,4);
+	Point point40 = new Point(4,0);
+	model.addPoint(Point.ORIGIN);
+	model.addPoint(point24);
+	model.addPoint(new Point(2,2));
+	model.addPoint(point40);
+
+	// Every point found is reported, ending with the start point.
+	List<Point> found = new ArrayList<Point>();
+	JarvisMarcher marcher = new JarvisMarcher(model);
+	marcher.setVertexListener(found::add);
+	marcher.solve();
+
+	assertEquals(3, found.size());
+	assertEquals(point24, found.get(0));
+	assertEquals(point40, found.get(1));
+	assertEquals(Point.ORIGIN, found.get(2));
+    }
+
+    @Test(timeout=3000)
+    public final void testCancel() {
+	Point point24 = new Point(2,4);
+	model.addPoint(Point.ORIGIN);
+	model.addPoint(point24);
+	model.addPoint(new Point(2,2));
+	model.addPoint(new Point(4,0));
+
+	// Cancel as soon as the first point is found.
+	JarvisMarcher marcher = new JarvisMarcher(model);
+	marcher.setVertexListener(point -> marcher.cancel());
+	try {
+	    marcher.solve();
+	    Assert.fail();
+	} catch (CancellationException e) {
+	    // Exception thrown as expected.
+	}
+
+	// The hull is left open, as far as it got.
+	assertFalse(model.getHull().isClosed());
+	assertEquals(2, model.getHull().getPoints().size());
+	assertEquals(point24, model.getHull().getCurPoint());
+
+	// Solving again picks up where the cancelled solve left off.
+	marcher.setVertexListener(null);
+	marcher.solve();
+	assertTrue(model.getHull().isClosed());
+	assertEquals(3, model.getHull().getPoints().size());
+    }
+
+    @Test
+    public final void testIsBetter() {
+	// Less clockwise turn wins, regardless of distance.
+	assertTrue(JarvisMarcher.isBetter(0, 0, 5, 0, 1, 1));
+	assertFalse(JarvisMarcher.isBetter(0, 0, 1, 1, 5, 0));
+
+	// Collinear - farther wins.
+	assertTrue(JarvisMarcher.isBetter(0, 0, 1, 1, 2, 2));
+	assertFalse(JarvisMarcher.isBetter(0, 0, 2, 2, 1, 1));
+    }
+
+    @Test
+    public final void testIsCandidate() {
+	// Straight ahead and clockwise turns are valid.
+	assertTrue(JarvisMarcher.isCandidate(0, 1, 0, 5));
+	assertTrue(JarvisMarcher.isCandidate(0, 1, 1, 0));
+	assertTrue(JarvisMarcher.isCandidate(0, 1, 1, -1));
+
+	// Straight behind and anti-clockwise turns are not.
+	assertFalse(JarvisMarcher.isCandidate(0, 1, 0, -5));
+	assertFalse(JarvisMarcher.isCandidate(0, 1, -1, 0));
+    }
+    
     @Test
     public final void testSetBestPoint() {
 	
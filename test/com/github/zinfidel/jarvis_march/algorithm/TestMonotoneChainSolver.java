@@ -0,0 +1,29 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Point;
+import com.github.zinfidel.jarvis_march.geometry.PointCloud;
+
+public class TestMonotoneChainSolver {
+
+    @Test
+    public final void testChain() {
+	// Square with a point in the middle of each edge, and the center.
+	long[] sorted = new long[9];
+	for (int i = 0; i < 9; i++) {
+	    sorted[i] = PointCloud.pack(i / 3, i % 3);
+	}
+	int[] xs = new int[10];
+	int[] ys = new int[10];
+
+	// Only the corners, anti-clockwise from the least point.
+	assertEquals(4, MonotoneChainSolver.chain(sorted, 0, 9, xs, ys));
+	assertEquals(new Point(0, 0), new Point(xs[0], ys[0]));
+	assertEquals(new Point(2, 0), new Point(xs[1], ys[1]));
+	assertEquals(new Point(2, 2), new Point(xs[2], ys[2]));
+	assertEquals(new Point(0, 2), new Point(xs[3], ys[3]));
+    }
+}
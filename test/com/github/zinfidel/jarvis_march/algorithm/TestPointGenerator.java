@@ -0,0 +1,160 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.ConvexHull;
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestPointGenerator {
+
+    // Enough points for several blocks, and a part of one.
+    private static final int COUNT = 100000;
+
+    private static final Point BOUNDS = new Point(640, 480);
+
+    @Test
+    public final void testRandomBulk() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	PointGenerator.random(xs, ys, BOUNDS, 42);
+
+	for (int i = 0; i < COUNT; i++) {
+	    assertTrue(xs[i] >= 0 && xs[i] < BOUNDS.x);
+	    assertTrue(ys[i] >= 0 && ys[i] < BOUNDS.y);
+	}
+    }
+
+    @Test
+    public final void testNormalRandomBulk() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	PointGenerator.normalRandom(xs, ys, BOUNDS, 42);
+
+	// Within the bounds, and centered on them.
+	long sumX = 0;
+	long sumY = 0;
+	for (int i = 0; i < COUNT; i++) {
+	    assertTrue(xs[i] >= 0 && xs[i] <= BOUNDS.x);
+	    assertTrue(ys[i] >= 0 && ys[i] <= BOUNDS.y);
+	    sumX += xs[i];
+	    sumY += ys[i];
+	}
+	assertEquals(BOUNDS.x / 2, sumX / COUNT, 5);
+	assertEquals(BOUNDS.y / 2, sumY / COUNT, 5);
+    }
+
+    @Test
+    public final void testSeeded() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	int[] xs2 = new int[COUNT];
+	int[] ys2 = new int[COUNT];
+
+	// The same seed generates the same points, however they are split up.
+	PointGenerator.normalRandom(xs, ys, BOUNDS, 42);
+	PointGenerator.normalRandom(xs2, ys2, BOUNDS, 42);
+	assertArrayEquals(xs, xs2);
+	assertArrayEquals(ys, ys2);
+
+	// Another seed does not.
+	PointGenerator.normalRandom(xs2, ys2, BOUNDS, 43);
+	assertFalse(Arrays.equals(xs, xs2));
+    }
+
+    @Test
+    public final void testCircle() {
+	int[] xs = new int[1000];
+	int[] ys = new int[1000];
+	PointGenerator.circle(xs, ys, new Point(1 << 30, 1 << 30), 42);
+
+	// All but a few (rounded) points are on the hull.
+	assertTrue(solve(xs, ys).getPoints().size() > 990);
+    }
+
+    @Test
+    public final void testNearCircle() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	PointGenerator.nearCircle(xs, ys, BOUNDS, 0.1, 42);
+
+	// Every point is in the ring.
+	for (int i = 0; i < COUNT; i++) {
+	    double r = Math.hypot(xs[i] - 319.5, ys[i] - 239.5);
+	    assertTrue(r >= 239.5 * 0.9 - 1 && r <= 239.5 + 1);
+	}
+
+	try {
+	    PointGenerator.nearCircle(xs, ys, BOUNDS, 1.5, 42);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Exception thrown as expected.
+	}
+    }
+
+    @Test
+    public final void testClusters() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	PointGenerator.clusters(xs, ys, BOUNDS, 5, 42);
+
+	for (int i = 0; i < COUNT; i++) {
+	    assertTrue(xs[i] >= 0 && xs[i] < BOUNDS.x);
+	    assertTrue(ys[i] >= 0 && ys[i] < BOUNDS.y);
+	}
+    }
+
+    @Test
+    public final void testCollinear() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	PointGenerator.collinear(xs, ys, BOUNDS, 42);
+
+	// Only the corners of the bounds are hull points.
+	List<Point> points = solve(xs, ys).getPoints();
+	assertEquals(4, points.size());
+	assertEquals(Point.ORIGIN, points.get(0));
+	assertEquals(new Point(0, 479), points.get(1));
+	assertEquals(new Point(639, 479), points.get(2));
+	assertEquals(new Point(639, 0), points.get(3));
+    }
+
+    @Test
+    public final void testDuplicates() {
+	int[] xs = new int[COUNT];
+	int[] ys = new int[COUNT];
+	PointGenerator.duplicates(xs, ys, BOUNDS, 10, 42);
+
+	Model model = new Model();
+	for (int i = 0; i < COUNT; i++) {
+	    model.addPoint(xs[i], ys[i]);
+	}
+	assertTrue(model.getCloud().size() <= 10);
+    }
+
+    @Test
+    public final void testMismatchedArrays() {
+	try {
+	    PointGenerator.random(new int[2], new int[3], BOUNDS, 42);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Exception thrown as expected.
+	}
+    }
+
+    /** @return The solved hull of the points. */
+    private static ConvexHull solve(int[] xs, int[] ys) {
+	Model model = new Model();
+	for (int i = 0; i < xs.length; i++) {
+	    model.addPoint(xs[i], ys[i]);
+	}
+	return new MonotoneChainSolver(model).solve();
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestQuickHullSolver {
+
+    // Instances to set up and test.
+    private static Model model;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    model = new Model();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test(timeout=10000)
+    public final void testSolveParallel() {
+	// Enough points for both the scans and the sides to be split up.
+	// Seeded, so that a failure can be reproduced.
+	int[] xs = new int[200000];
+	int[] ys = new int[200000];
+	PointGenerator.normalRandom(xs, ys, new Point(1000000, 1000000), 42);
+	model.addPoints(xs, ys, xs.length);
+	for (int n = 0; n < 20000; n++) {
+	    double theta = 2d * Math.PI * n / 20000d;
+	    model.addPoint(new Point((int) (500000 + 400000 * Math.cos(theta)),
+				     (int) (500000 + 400000 * Math.sin(theta))));
+	}
+
+	new MonotoneChainSolver(model).solve();
+	List<Point> expected = model.getHull().getPoints();
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    new QuickHullSolver(model, pool).solve();
+	    assertEquals(expected, model.getHull().getPoints());
+	} finally {
+	    pool.shutdown();
+	}
+    }
+}
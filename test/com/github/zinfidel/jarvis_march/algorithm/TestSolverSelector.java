@@ -0,0 +1,106 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.ConvexHull;
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestSolverSelector {
+
+    // Instances to set up and test.
+    private static Model model;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    model = new Model();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    /** Adds points evenly spread on a circle. */
+    private static void addCircle(int count) {
+	for (int n = 0; n < count; n++) {
+	    double theta = 2d * Math.PI * n / count;
+	    model.addPoint(new Point((int) (100000 + 100000 * Math.cos(theta)),
+				     (int) (100000 + 100000 * Math.sin(theta))));
+	}
+    }
+
+    @Test
+    public final void testSelectSmallHull() {
+	// A triangle around a grid has a tiny hull.
+	model.addPoint(new Point(0, 0));
+	model.addPoint(new Point(1000, 0));
+	model.addPoint(new Point(0, 1000));
+	for (int n = 0; n < 2000; n++) {
+	    model.addPoint(new Point(100 + n % 40, 100 + n / 40));
+	}
+
+	assertTrue(SolverSelector.select(model, 1) instanceof JarvisMarcher);
+    }
+
+    @Test
+    public final void testSelectMediumHull() {
+	// A hull of 200 points among 5000, spread through the cloud. The
+	// sample only sees some of them, but enough to rule out Jarvis.
+	for (int n = 0; n < 5000; n++) {
+	    model.addPoint(new Point(90000 + n % 100, 90000 + n / 100));
+	    if (n % 25 == 0) {
+		double theta = 2d * Math.PI * n / 5000d;
+		model.addPoint(new Point((int) (100000 + 100000 * Math.cos(theta)),
+					 (int) (100000 + 100000 * Math.sin(theta))));
+	    }
+	}
+
+	assertTrue(SolverSelector.select(model, 1) instanceof ChanSolver);
+    }
+
+    @Test
+    public final void testSelectLargeHull() {
+	addCircle(5000);
+
+	assertTrue(SolverSelector.select(model, 1)
+		instanceof MonotoneChainSolver);
+    }
+
+    @Test
+    public final void testSelectParallel() {
+	addCircle(JarvisMarcher.PARALLEL_THRESHOLD * 2);
+
+	assertTrue(SolverSelector.select(model, 4) instanceof QuickHullSolver);
+	assertFalse(SolverSelector.select(model, 1) instanceof QuickHullSolver);
+    }
+
+    @Test(timeout=3000)
+    public final void testSelectedSolverSolves() {
+	addCircle(500);
+	Point bounds = new Point(200000, 200000);
+	for (int n = 0; n < 5000; n++) {
+	    model.addPoint(PointGenerator.normalRandom(bounds));
+	}
+
+	new JarvisMarcher(model).solve();
+	ConvexHull expected = model.getHull();
+
+	HullSolver solver = SolverSelector.select(model);
+	ConvexHull hull = solver.solve();
+	assertSame(hull, model.getHull());
+	assertEquals(expected.getPoints(), hull.getPoints());
+    }
+
+    @Test
+    public final void testEstimateHullSize() {
+	assertEquals(0, SolverSelector.estimateHullSize(model.getCloud()));
+
+	// Every point is on the hull of a circle.
+	addCircle(4000);
+	long h = SolverSelector.estimateHullSize(model.getCloud());
+	assertTrue(h > 1000);
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestSolverStats {
+
+    // Instances to set up and test.
+    private static Model model;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    // A square with a grid of points inside.
+	    model = new Model();
+	    for (int x = 0; x <= 10; x++) {
+		for (int y = 0; y <= 10; y++) {
+		    model.addPoint(new Point(x, y));
+		}
+	    }
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testDisabled() {
+	HullSolver solver = new JarvisMarcher(model);
+	solver.solve();
+	assertNull(solver.getStats());
+    }
+
+    @Test
+    public final void testJarvisMarcher() {
+	HullSolver solver = new JarvisMarcher(model);
+	solver.setStatsEnabled(true);
+	solver.solve();
+	SolverStats stats = solver.getStats();
+
+	assertEquals("JarvisMarcher", stats.getSolver());
+	assertEquals(121, stats.getPoints());
+	assertEquals(4, stats.getHullSize());
+	assertTrue(stats.isSolved());
+	assertEquals(1, stats.getRounds());
+
+	// One step per hull point, each over the points left by the filter.
+	assertTrue(stats.getFiltered() < 121);
+	assertEquals(4, stats.getSteps());
+	assertEquals(4L * stats.getFiltered(), stats.getCandidates());
+	assertEquals(stats.getFiltered(), stats.getMaxScan());
+	assertEquals(stats.getFiltered(), stats.getMeanScan(), 0d);
+	assertEquals(4 * 121, stats.getAllocationsAvoided());
+	assertTrue(stats.getNanos() >= stats.getMaxStepNanos());
+    }
+
+    @Test
+    public final void testOtherSolvers() {
+	HullSolver[] solvers = { new ChanSolver(model),
+				 new MonotoneChainSolver(model),
+				 new QuickHullSolver(model) };
+
+	for (HullSolver solver : solvers) {
+	    solver.setStatsEnabled(true);
+	    solver.solve();
+	    SolverStats stats = solver.getStats();
+
+	    assertEquals(solver.getClass().getSimpleName(), stats.getSolver());
+	    assertEquals(121, stats.getPoints());
+	    assertEquals(4, stats.getHullSize());
+	    assertTrue(stats.getSteps() > 0);
+	    assertTrue(stats.getCandidates() >= stats.getMaxScan());
+	    assertEquals(0, stats.getAllocationsAvoided());
+	}
+
+	// QuickHull scans the whole grid for each of its two sides.
+	assertEquals(121, solvers[2].getStats().getFiltered());
+	assertEquals(121, solvers[2].getStats().getMaxScan());
+	assertTrue(solvers[2].getStats().getCandidates() >= 242);
+    }
+
+    @Test
+    public final void testChanRounds() {
+	// Points on a parabola are all hull points, which takes several
+	// guesses of the hull size.
+	model.clearPoints();
+	for (int x = 0; x < 100; x++) {
+	    model.addPoint(new Point(x, x * x));
+	}
+
+	HullSolver solver = new ChanSolver(model);
+	solver.setStatsEnabled(true);
+	solver.solve();
+	assertEquals(100, solver.getStats().getHullSize());
+	assertTrue(solver.getStats().getRounds() > 1);
+    }
+
+    @Test
+    public final void testFailed() {
+	model.clearPoints();
+	model.addPoint(new Point(1, 1));
+	model.addPoint(new Point(2, 2));
+
+	HullSolver solver = new MonotoneChainSolver(model);
+	solver.setStatsEnabled(true);
+	try {
+	    solver.solve();
+	    Assert.fail();
+	} catch (DegenerateGeometryException e) {
+	    // Caught as expected, and recorded.
+	    assertFalse(solver.getStats().isSolved());
+	    assertEquals(2, solver.getStats().getPoints());
+	}
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestStreamingHull {
+
+    // Instances to set up and test.
+    private static StreamingHull stream;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    stream = new StreamingHull(16);
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testAdd() {
+	// A square with a point in the middle, and a repeated corner.
+	stream.add(Point.ORIGIN);
+	stream.add(new Point(0, 4));
+	stream.add(new Point(2, 2));
+	stream.add(new Point(4, 4));
+	stream.add(new Point(4, 0));
+	stream.add(new Point(4, 0));
+
+	assertEquals(6, stream.getCount());
+	assertEquals(4, stream.getVertexCount());
+	assertEquals(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+				   new Point(4, 4), new Point(4, 0)),
+		     stream.getHull().getPoints());
+	assertTrue(stream.getHull().isClosed());
+
+	try {
+	    stream.add(-1, 0);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+    }
+
+    @Test(timeout=3000)
+    public final void testMatchesJarvisMarcher() {
+	// Many more points than fit in the buffer.
+	Model model = new Model();
+	Point bounds = new Point(20000, 20000);
+	for (int n = 0; n < 20000; n++) {
+	    Point point = PointGenerator.normalRandom(bounds);
+	    model.addPoint(point);
+	    stream.add(point);
+	}
+	for (int n = 0; n < 1000; n++) {
+	    double theta = 2d * Math.PI * n / 1000d;
+	    Point point = new Point((int) (10000 + 9000 * Math.cos(theta)),
+				    (int) (10000 + 9000 * Math.sin(theta)));
+	    model.addPoint(point);
+	    stream.add(point);
+	}
+
+	List<Point> expected = new JarvisMarcher(model).solve().getPoints();
+	assertEquals(expected, stream.getHull().getPoints());
+    }
+
+    @Test
+    public final void testMerge() {
+	StreamingHull other = new StreamingHull();
+	stream.addAll(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+				    new Point(1, 1)).iterator());
+	other.addAll(Arrays.asList(new Point(4, 4), new Point(4, 0),
+				   new Point(3, 3)).spliterator());
+
+	stream.merge(other);
+	assertEquals(6, stream.getCount());
+	assertEquals(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+				   new Point(4, 4), new Point(4, 0)),
+		     stream.getHull().getPoints());
+    }
+
+    @Test
+    public final void testAddAllChannel() throws IOException {
+	ByteBuffer bytes = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+	bytes.putInt(0).putInt(0).putInt(0).putInt(4);
+	bytes.putInt(4).putInt(0).putInt(1).putInt(1);
+
+	stream.addAll(Channels.newChannel(
+		new ByteArrayInputStream(bytes.array())));
+	assertEquals(4, stream.getCount());
+	assertEquals(3, stream.getVertexCount());
+
+	// A truncated point.
+	try {
+	    stream.addAll(Channels.newChannel(
+		    new ByteArrayInputStream(new byte[12])));
+	    Assert.fail();
+	} catch (EOFException e) {
+	    // Caught as expected.
+	}
+    }
+
+    @Test
+    public final void testColinearPoints() {
+	stream.add(new Point(0, 1));
+	stream.add(new Point(1, 1));
+	stream.add(new Point(2, 1));
+
+	try {
+	    stream.getHull();
+	    Assert.fail();
+	} catch (DegenerateGeometryException e) {
+	    // Caught as expected.
+	}
+    }
+}
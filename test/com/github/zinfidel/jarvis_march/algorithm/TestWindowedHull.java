@@ -0,0 +1,126 @@
+package com.github.zinfidel.jarvis_march.algorithm;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestWindowedHull {
+
+    // Instances to set up and test.
+    private static WindowedHull window;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    // Keep 10 time units, in buckets of 2.
+	    window = new WindowedHull(10, 2);
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testAdd() {
+	// A square with a point in the middle, one corner per bucket.
+	assertTrue(window.add(0, Point.ORIGIN));
+	assertTrue(window.add(2, new Point(0, 4)));
+	assertTrue(window.add(3, new Point(2, 2)));
+	assertTrue(window.add(4, new Point(4, 4)));
+	assertTrue(window.add(6, new Point(4, 0)));
+
+	assertEquals(4, window.getVertexCount());
+	assertEquals(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+				   new Point(4, 4), new Point(4, 0)),
+		     window.getHull().getPoints());
+	assertTrue(window.getHull().isClosed());
+
+	// Late, but within the newest bucket.
+	assertTrue(window.add(7, new Point(5, 5)));
+	assertTrue(window.add(6, new Point(6, 0)));
+	assertEquals(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+				   new Point(5, 5), new Point(6, 0)),
+		     window.getHull().getPoints());
+
+	try {
+	    window.add(8, -1, 0);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+
+	// Older than the newest bucket.
+	try {
+	    window.add(5, 1, 1);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+    }
+
+    @Test
+    public final void testExpire() {
+	window.add(0, Point.ORIGIN);
+	window.add(2, new Point(0, 4));
+	window.add(4, new Point(4, 4));
+	window.add(6, new Point(4, 0));
+	window.add(8, new Point(2, 2));
+
+	// The origin's bucket falls out of the window: only a triangle is left.
+	window.advanceTo(12);
+	assertEquals(Arrays.asList(new Point(0, 4), new Point(4, 4),
+				   new Point(4, 0)),
+		     window.getHull().getPoints());
+
+	// Points that have expired already are dropped.
+	assertFalse(window.add(1, new Point(9, 9)));
+
+	// Moving back in time does nothing.
+	window.advanceTo(0);
+	assertEquals(3, window.getVertexCount());
+
+	// Then the rest falls out, bucket by bucket.
+	window.advanceTo(14);
+	assertEquals(3, window.getVertexCount());
+	window.advanceTo(16);
+	assertEquals(2, window.getVertexCount());
+	window.advanceTo(100);
+	assertEquals(0, window.getVertexCount());
+
+	try {
+	    window.getHull();
+	    Assert.fail();
+	} catch (DegenerateGeometryException e) {
+	    // Caught as expected.
+	}
+
+	// The window starts over with new points.
+	window.add(100, Point.ORIGIN);
+	window.add(101, new Point(0, 4));
+	window.add(101, new Point(4, 0));
+	assertEquals(3, window.getVertexCount());
+    }
+
+    @Test
+    public final void testBadLengths() {
+	try {
+	    new WindowedHull(0, 1);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+
+	try {
+	    new WindowedHull(10, 0);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+    }
+}
@@ -125,4 +125,81 @@ public class TestConvexHull {
 	}
     }
     
-}
\ No newline at end of file
+    @Test
+    public final void testInsert() {
+	// Inserting requires a closed hull.
+	try {
+	    basicHull.insert(Point11);
+	    Assert.fail();
+	} catch (RuntimeException e) {
+	    // Exception thrown as expected.
+	}
+
+	// A clockwise square.
+	Point point04 = new Point(0,4);
+	Point point44 = new Point(4,4);
+	Point point40 = new Point(4,0);
+	basicHull.addPoint(point04);
+	basicHull.addPoint(point44);
+	basicHull.addPoint(point40);
+	basicHull.addPoint(Point.ORIGIN);
+
+	// Points inside and on the boundary change nothing.
+	assertFalse(basicHull.insert(new Point(2,2)));
+	assertFalse(basicHull.insert(new Point(2,4)));
+	assertFalse(basicHull.insert(point40));
+	assertEquals(4, basicHull.getPoints().size());
+
+	// A point beyond the top-right corner replaces it.
+	Point point66 = new Point(6,6);
+	assertTrue(basicHull.insert(point66));
+	assertEquals(4, basicHull.getPoints().size());
+	assertEquals(point66, basicHull.getPoints().get(2));
+	assertEquals(new Vector(point04, point66), basicHull.getEdges().get(1));
+	assertEquals(new Vector(point66, point40), basicHull.getEdges().get(2));
+	assertEquals(point66, basicHull.getAngles().get(2).center);
+	assertEquals(new Vector(point40, Point.ORIGIN), basicHull.getCurVector());
+
+	// A point in line with the bottom edge makes its corner collinear.
+	Point point80 = new Point(8,0);
+	assertTrue(basicHull.insert(point80));
+	assertEquals(point80, basicHull.getPoints().get(3));
+	assertFalse(basicHull.getPoints().contains(point40));
+	assertTrue(basicHull.isClosed());
+    }
+
+    @Test
+    public final void testInsertStart() {
+	Point point22 = new Point(2,2);
+	Point point21 = new Point(2,1);
+	basicHull = new ConvexHull(new Point(1,1));
+	basicHull.addPoint(new Point(1,3));
+	basicHull.addPoint(new Point(3,1));
+	basicHull.addPoint(new Point(1,1));
+
+	// A new least point becomes the start of the hull.
+	assertTrue(basicHull.insert(Point.ORIGIN));
+	assertEquals(Point.ORIGIN, basicHull.getPoints().get(0));
+	assertEquals(Point.ORIGIN, basicHull.getCurPoint());
+	assertEquals(3, basicHull.getPoints().size());
+	assertEquals(new Vector(Point.ORIGIN, new Point(1,3)),
+		     basicHull.getEdges().get(0));
+	assertFalse(basicHull.insert(point22));
+	assertFalse(basicHull.insert(point21));
+    }
+
+    @Test
+    public final void testIsVertex() {
+	basicHull.addPoint(new Point(0,4));
+	basicHull.addPoint(new Point(4,4));
+	basicHull.addPoint(new Point(4,0));
+	basicHull.addPoint(Point.ORIGIN);
+
+	assertTrue(basicHull.isVertex(Point.ORIGIN));
+	assertTrue(basicHull.isVertex(new Point(0,4)));
+	assertTrue(basicHull.isVertex(new Point(4,0)));
+	assertFalse(basicHull.isVertex(new Point(2,2)));
+	assertFalse(basicHull.isVertex(new Point(0,2)));
+	assertFalse(basicHull.isVertex(new Point(8,8)));
+    }
+}
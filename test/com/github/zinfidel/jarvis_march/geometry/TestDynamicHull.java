@@ -0,0 +1,107 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestDynamicHull {
+
+    private static DynamicHull hull;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    hull = new DynamicHull();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testInsert() {
+	assertTrue(hull.getVertices().isEmpty());
+
+	assertTrue(hull.insert(0, 0));
+	assertTrue(hull.insert(4, 0));
+	assertFalse(hull.insert(4, 0));
+	assertEquals(2, hull.size());
+
+	// Collinear points only have their end points as corners.
+	hull.insert(2, 0);
+	assertEquals(Arrays.asList(new Point(0, 0), new Point(4, 0)),
+		     hull.getVertices());
+
+	// Clockwise from the least point.
+	hull.insert(0, 4);
+	hull.insert(4, 4);
+	hull.insert(2, 2);
+	assertEquals(Arrays.asList(new Point(0, 0), new Point(0, 4),
+				   new Point(4, 4), new Point(4, 0)),
+		     hull.getVertices());
+	assertEquals(4, hull.getVertexCount());
+	assertTrue(hull.isVertex(4, 4));
+	assertFalse(hull.isVertex(2, 2));
+	assertFalse(hull.isVertex(2, 0));
+    }
+
+    @Test
+    public final void testRemove() {
+	hull.insert(0, 0);
+	hull.insert(0, 4);
+	hull.insert(4, 4);
+	hull.insert(4, 0);
+	hull.insert(2, 2);
+	hull.insert(3, 1);
+
+	assertTrue(hull.remove(4, 0));
+	assertFalse(hull.remove(4, 0));
+	assertEquals(5, hull.size());
+	assertEquals(Arrays.asList(new Point(0, 0), new Point(0, 4),
+				   new Point(4, 4), new Point(3, 1)),
+		     hull.getVertices());
+
+	// Back down to a point.
+	hull.remove(0, 0);
+	hull.remove(0, 4);
+	hull.remove(4, 4);
+	hull.remove(3, 1);
+	assertEquals(Arrays.asList(new Point(2, 2)), hull.getVertices());
+	assertTrue(hull.remove(2, 2));
+	assertTrue(hull.getVertices().isEmpty());
+	assertFalse(hull.contains(2, 2));
+    }
+
+    @Test(timeout=5000)
+    public final void testMatchesModel() {
+	// Churn a cloud, and compare against a fresh hull now and then.
+	Random random = new Random(42);
+	PointCloud cloud = new PointCloud();
+	for (int n = 0; n < 2000; n++) {
+	    cloud.add(random.nextInt(1000), random.nextInt(1000));
+	}
+	hull = new DynamicHull(cloud);
+
+	for (int n = 0; n < 2000; n++) {
+	    int x = random.nextInt(1000);
+	    int y = random.nextInt(1000);
+	    if (random.nextBoolean()) {
+		assertEquals(cloud.add(x, y), hull.insert(x, y));
+	    } else {
+		int i = random.nextInt(cloud.size());
+		x = cloud.getX(i);
+		y = cloud.getY(i);
+		assertEquals(cloud.remove(x, y), hull.remove(x, y));
+	    }
+
+	    if (n % 100 == 0) {
+		assertEquals(cloud.size(), hull.size());
+		assertEquals(new DynamicHull(cloud).getVertices(),
+			     hull.getVertices());
+	    }
+	}
+    }
+}
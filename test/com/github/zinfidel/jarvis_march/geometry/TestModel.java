@@ -2,6 +2,7 @@ package com.github.zinfidel.jarvis_march.geometry;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Set;
 
 import junit.framework.Assert;
@@ -41,6 +42,75 @@ public class TestModel {
 	assertTrue(points.contains(p2));
     }
 
+    @Test
+    public final void testAddPointPrimitive() {
+	model.addPoint(3, 1);
+	model.addPoint(1, 2);
+	model.addPoint(1, 2);
+
+	assertEquals(2, model.getPoints().size());
+	assertEquals(new Point(1, 2), model.getLeftmost());
+	assertEquals(new Point(3, 2), model.getBounds());
+
+	try {
+	    model.addPoint(1, -1);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+    }
+
+    @Test
+    public final void testAddPoints() {
+	int[] xs = { 3, 1, 1, 2 };
+	int[] ys = { 1, 2, 2, 5 };
+	int count = model.getModCount();
+
+	// Only the first three, one of which is repeated.
+	model.addPoints(xs, ys, 3);
+	assertEquals(2, model.getPoints().size());
+	assertEquals(new Point(1, 2), model.getLeftmost());
+	assertEquals(new Point(3, 2), model.getBounds());
+	assertTrue(model.getModCount() != count);
+
+	try {
+	    model.addPoints(xs, ys, 5);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+
+	// The points before a bad one are added.
+	try {
+	    model.addPoints(new int[] { 7, -1 }, new int[] { 7, 7 }, 2);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+	assertTrue(model.getPoints().contains(new Point(7, 7)));
+    }
+
+
+    @Test
+    public final void testCheckQuadrant() {
+	Model.checkQuadrant(0, 0);
+	Model.checkQuadrant(5, 7);
+
+	try {
+	    Model.checkQuadrant(-1, 7);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+
+	try {
+	    Model.checkQuadrant(7, -1);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected.
+	}
+    }
+
     @Test
     public final void testClearPoints() {
 	model.addPoint(new Point(1,1));
@@ -52,6 +122,27 @@ public class TestModel {
 	assertEquals(0, model.getPoints().size());
     }
 
+    @Test
+    public final void testGetModCount() {
+	int count = model.getModCount();
+
+	// Only actual changes count.
+	model.addPoint(1, 1);
+	assertTrue(model.getModCount() != count);
+	count = model.getModCount();
+	model.addPoint(1, 1);
+	assertEquals(count, model.getModCount());
+
+	model.removePoint(new Point(1, 1));
+	assertTrue(model.getModCount() != count);
+	count = model.getModCount();
+	model.removePoint(new Point(1, 1));
+	assertEquals(count, model.getModCount());
+
+	model.clearPoints();
+	assertTrue(model.getModCount() != count);
+    }
+
     @Test
     public final void testGetBounds() {
 	model.addPoint(new Point(3, 2094));
@@ -74,6 +165,19 @@ public class TestModel {
 	assertEquals(p1, model.getLeftmost());
     }
 
+    @Test
+    public final void testGetLeftmostTie() {
+	Point p1 = new Point(2, 3);
+
+	// Ties on x are broken by the lowest y.
+	model.addPoint(new Point(2, 5));
+	model.addPoint(p1);
+	model.addPoint(new Point(2, 4));
+	model.addPoint(new Point(7, 0));
+
+	assertEquals(p1, model.getLeftmost());
+    }
+
     @Test
     public final void testGetPoints() {
 	// Test immutability of returned list by trying to add point.
@@ -85,4 +189,112 @@ public class TestModel {
 	}
     }
 
+    @Test
+    public final void testGetExtremes() {
+	model.addPoint(new Point(5, 0));
+	model.addPoint(new Point(10, 5));
+	model.addPoint(new Point(5, 5));
+	model.addPoint(new Point(0, 5));
+	assertEquals(3, model.getExtremes().getVertices().size());
+	assertTrue(model.getExtremes().contains(5, 3));
+
+	model.clearPoints();
+	assertTrue(model.getExtremes().getVertices().isEmpty());
+    }
+
+    @Test
+    public final void testIncremental() {
+	model.addPoint(new Point(0, 0));
+	model.addPoint(new Point(0, 4));
+	model.addPoint(new Point(4, 0));
+
+	// Without a solved hull, points are just added.
+	model.setIncremental(true);
+	assertTrue(model.isIncremental());
+	model.addPoint(new Point(4, 4));
+	assertNull(model.getHull());
+
+	// Solve by hand, then keep adding.
+	ConvexHull hull = model.newHull();
+	hull.addPoint(new Point(0, 4));
+	hull.addPoint(new Point(4, 4));
+	hull.addPoint(new Point(4, 0));
+	hull.addPoint(Point.ORIGIN);
+
+	model.addPoint(new Point(2, 2));
+	assertEquals(4, hull.getPoints().size());
+	model.addPoint(new Point(2, 6));
+	assertEquals(5, hull.getPoints().size());
+	assertEquals(new Point(2, 6), hull.getPoints().get(2));
+	assertSame(hull, model.getHull());
+
+	// Not in incremental mode, the hull is left alone.
+	model.setIncremental(false);
+	model.addPoint(new Point(9, 9));
+	assertEquals(5, hull.getPoints().size());
+    }
+
+    @Test
+    public final void testRemovePoint() {
+	Point p1 = new Point(1, 5);
+	Point p2 = new Point(3, 1);
+	model.addPoint(p1);
+	model.addPoint(p2);
+	model.addPoint(new Point(1, 7));
+	model.addPoint(new Point(4, 9));
+
+	assertTrue(model.removePoint(p1));
+	assertFalse(model.removePoint(p1));
+	assertEquals(3, model.getPoints().size());
+
+	// The leftmost point and bounds are found again.
+	assertEquals(new Point(1, 7), model.getLeftmost());
+	model.removePoint(new Point(4, 9));
+	assertEquals(new Point(3, 7), model.getBounds());
+
+	try {
+	    model.removePoint(null);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Exception thrown as expected.
+	}
+    }
+
+    @Test
+    public final void testIncrementalRemove() {
+	model.addPoint(new Point(0, 0));
+	model.addPoint(new Point(0, 4));
+	model.addPoint(new Point(4, 4));
+	model.addPoint(new Point(4, 0));
+	model.addPoint(new Point(2, 2));
+	model.addPoint(new Point(1, 1));
+	model.setIncremental(true);
+
+	ConvexHull hull = model.newHull();
+	hull.addPoint(new Point(0, 4));
+	hull.addPoint(new Point(4, 4));
+	hull.addPoint(new Point(4, 0));
+	hull.addPoint(Point.ORIGIN);
+
+	// Removing an inside point leaves the hull alone.
+	model.removePoint(new Point(2, 2));
+	assertSame(hull, model.getHull());
+
+	// Removing a corner replaces the hull, with a new start point.
+	model.removePoint(Point.ORIGIN);
+	assertEquals(Arrays.asList(new Point(0, 4), new Point(4, 4),
+				   new Point(4, 0), new Point(1, 1)),
+		     model.getHull().getPoints());
+	assertTrue(model.getHull().isClosed());
+
+	// And additions keep working on the new hull.
+	model.addPoint(new Point(5, 5));
+	assertEquals(new Point(5, 5), model.getHull().getPoints().get(1));
+
+	// Too few points left for a hull.
+	model.removePoint(new Point(0, 4));
+	model.removePoint(new Point(5, 5));
+	model.removePoint(new Point(4, 4));
+	assertNull(model.getHull());
+    }
 }
@@ -0,0 +1,98 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestOctagon {
+
+    private static Octagon octagon;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    octagon = new Octagon();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testOffer() {
+	// A 5x5 grid, whose extremes are just the four corners.
+	for (int x = 0; x < 5; x++) {
+	    for (int y = 0; y < 5; y++) {
+		octagon.offer(x, y);
+	    }
+	}
+
+	assertEquals(Arrays.asList(new Point(4, 0), new Point(4, 4),
+				   new Point(0, 4), new Point(0, 0)),
+		     octagon.getVertices());
+    }
+
+    @Test
+    public final void testContains() {
+	// A diamond.
+	octagon.offer(5, 0);
+	octagon.offer(10, 5);
+	octagon.offer(5, 10);
+	octagon.offer(0, 5);
+
+	assertTrue(octagon.contains(5, 5));
+	assertTrue(octagon.contains(3, 4));
+
+	// Corners, edges and outside points are not strictly inside.
+	assertFalse(octagon.contains(5, 0));
+	assertFalse(octagon.contains(2, 3));
+	assertFalse(octagon.contains(1, 1));
+    }
+
+    @Test
+    public final void testContainsDegenerate() {
+	// Nothing is inside of nothing, or of a line.
+	assertFalse(octagon.contains(0, 0));
+
+	octagon.offer(0, 0);
+	octagon.offer(4, 4);
+	octagon.offer(2, 2);
+	assertEquals(2, octagon.getVertices().size());
+	assertFalse(octagon.contains(2, 2));
+    }
+
+    @Test
+    public final void testFilter() {
+	PointCloud cloud = new PointCloud();
+	for (int x = 0; x < 5; x++) {
+	    for (int y = 0; y < 5; y++) {
+		cloud.add(x, y);
+		octagon.offer(x, y);
+	    }
+	}
+
+	// Only the 16 points on the border of the grid remain, in order.
+	int[] xs = new int[cloud.size()];
+	int[] ys = new int[cloud.size()];
+	assertEquals(16, octagon.filter(cloud, xs, ys));
+	assertEquals(new Point(0, 0), new Point(xs[0], ys[0]));
+	assertEquals(new Point(4, 4), new Point(xs[15], ys[15]));
+	for (int i = 0; i < 16; i++) {
+	    assertTrue(xs[i] == 0 || xs[i] == 4 || ys[i] == 0 || ys[i] == 4);
+	}
+    }
+
+    @Test
+    public final void testClear() {
+	octagon.offer(5, 0);
+	octagon.offer(10, 5);
+	octagon.offer(0, 5);
+	octagon.clear();
+
+	assertTrue(octagon.getVertices().isEmpty());
+	octagon.offer(1, 1);
+	assertEquals(Arrays.asList(new Point(1, 1)), octagon.getVertices());
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestOrientation {
+
+    @Test
+    public final void testOrient() {
+	Point p1 = new Point(1, 1);
+	Point p2 = new Point(4, 1);
+
+	// Left, right, and collinear (both in front and behind).
+	assertTrue(Orientation.orient(p1, p2, new Point(2, 3)) > 0);
+	assertTrue(Orientation.orient(p1, p2, new Point(2, 0)) < 0);
+	assertEquals(0L, Orientation.orient(p1, p2, new Point(9, 1)));
+	assertEquals(0L, Orientation.orient(p1, p2, new Point(0, 1)));
+    }
+
+    @Test
+    public final void testOrientLargeCoordinates() {
+	// Would overflow (or round) if computed on ints or doubles.
+	int max = Integer.MAX_VALUE;
+	Point p1 = Point.ORIGIN;
+	Point p2 = new Point(max, max - 1);
+	Point p3 = new Point(max - 1, max - 2);
+
+	assertEquals(-1L, Orientation.orient(p1, p2, p3));
+	assertEquals(1L, Orientation.orient(p1, p3, p2));
+	assertEquals(0L, Orientation.orient(p1, p2, p2));
+    }
+
+    @Test
+    public final void testDot() {
+	assertTrue(Orientation.dot(1, 0, 1, 1) > 0);
+	assertTrue(Orientation.dot(1, 0, -1, 1) < 0);
+	assertEquals(0L, Orientation.dot(1, 0, 0, 1));
+    }
+
+    @Test
+    public final void testDistanceSq() {
+	assertEquals(25L, Orientation.distanceSq(0, 0, 3, 4));
+	assertEquals(2L * Integer.MAX_VALUE * Integer.MAX_VALUE,
+		     Orientation.distanceSq(0, 0, Integer.MAX_VALUE,
+					    Integer.MAX_VALUE));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.github.zinfidel.jarvis_march.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestPointCloud {
+
+    private static PointCloud cloud;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    cloud = new PointCloud();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testAdd() {
+	assertTrue(cloud.add(1, 1));
+	assertTrue(cloud.add(2, 1));
+
+	// Concurrent point is rejected.
+	assertFalse(cloud.add(2, 1));
+
+	assertEquals(2, cloud.size());
+	assertEquals(2, cloud.getX(1));
+	assertEquals(1, cloud.getY(1));
+	assertEquals(new Point(2, 1), cloud.get(1));
+    }
+
+    @Test
+    public final void testGrow() {
+	// Add enough points to force several re-allocations.
+	for (int x = 0; x < 100; x++) {
+	    for (int y = 0; y < 100; y++) {
+		cloud.add(x, y);
+	    }
+	}
+
+	assertEquals(10000, cloud.size());
+	for (int i = 0; i < cloud.size(); i++) {
+	    assertEquals(i, cloud.indexOf(cloud.getX(i), cloud.getY(i)));
+	}
+	assertEquals(-1, cloud.indexOf(100, 0));
+	assertFalse(cloud.add(42, 42));
+    }
+
+    @Test
+    public final void testEnsureCapacity() {
+	cloud.add(1, 1);
+	cloud.ensureCapacity(1000);
+
+	// The points are kept, and still found.
+	for (int x = 0; x < 1000; x++) {
+	    cloud.add(x, 2);
+	}
+	assertEquals(1001, cloud.size());
+	assertEquals(0, cloud.indexOf(1, 1));
+	assertEquals(1, cloud.indexOf(0, 2));
+    }
+
+    @Test
+    public final void testGetOutOfBounds() {
+	cloud.add(1, 1);
+	try {
+	    cloud.get(1);
+	    Assert.fail();
+	} catch (IndexOutOfBoundsException e) {
+	    // Exception thrown as expected.
+	}
+    }
+
+    @Test
+    public final void testClear() {
+	cloud.add(1, 1);
+	cloud.add(2, 2);
+	cloud.clear();
+
+	assertTrue(cloud.isEmpty());
+	assertFalse(cloud.contains(1, 1));
+	assertTrue(cloud.add(1, 1));
+    }
+
+    @Test
+    public final void testAsSet() {
+	cloud.add(1, 1);
+	cloud.add(2, 1);
+	Set<Point> points = cloud.asSet();
+
+	assertTrue(points.contains(new Point(2, 1)));
+	assertFalse(points.contains(new Point(1, 2)));
+	assertEquals(new HashSet<Point>(points), points);
+
+	// The view follows the cloud, and can not be modified.
+	cloud.add(3, 3);
+	assertEquals(3, points.size());
+	try {
+	    points.add(Point.ORIGIN);
+	    Assert.fail();
+	} catch (UnsupportedOperationException e) {
+	    // Exception thrown as expected.
+	}
+    }
+
+    @Test
+    public final void testRemove() {
+	cloud.add(1, 1);
+	cloud.add(2, 1);
+	cloud.add(3, 1);
+
+	// The last point moves into the hole.
+	assertTrue(cloud.remove(1, 1));
+	assertFalse(cloud.remove(1, 1));
+	assertEquals(2, cloud.size());
+	assertEquals(new Point(3, 1), cloud.get(0));
+	assertEquals(0, cloud.indexOf(3, 1));
+	assertFalse(cloud.contains(1, 1));
+
+	// Every remaining point is still found after many removals.
+	for (int x = 0; x < 100; x++) {
+	    for (int y = 0; y < 100; y++) {
+		cloud.add(x, y);
+	    }
+	}
+	for (int x = 0; x < 100; x += 2) {
+	    for (int y = 0; y < 100; y++) {
+		assertTrue(cloud.remove(x, y));
+	    }
+	}
+	assertEquals(5000, cloud.size());
+	for (int i = 0; i < cloud.size(); i++) {
+	    assertEquals(1, cloud.getX(i) % 2);
+	    assertEquals(i, cloud.indexOf(cloud.getX(i), cloud.getY(i)));
+	}
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.zinfidel.jarvis_march.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.algorithm.StreamingHull;
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+public class TestPointFile {
+
+    // The file to write and read back.
+    private static Path path;
+
+    // A square with a point in the middle, and a repeated corner.
+    private static final int[] XS = { 0, 0, 2, 4, 4, 4 };
+    private static final int[] YS = { 0, 4, 2, 4, 0, 0 };
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    path = Files.createTempFile("points", ".bin");
+	    PointFile.write(path, XS, YS, XS.length);
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @After
+    public void tearDown() throws Exception {
+	Files.deleteIfExists(path);
+    }
+
+    @Test
+    public final void testRead() throws IOException {
+	assertEquals(PointFile.HEADER_SIZE + 8 * XS.length, Files.size(path));
+
+	try (PointFile file = PointFile.open(path)) {
+	    assertEquals(XS.length, file.size());
+	    for (int i = 0; i < XS.length; i++) {
+		assertEquals(XS[i], file.getX(i));
+		assertEquals(YS[i], file.getY(i));
+	    }
+
+	    try {
+		file.getX(XS.length);
+		Assert.fail();
+	    } catch (IndexOutOfBoundsException e) {
+		// Caught as expected.
+	    }
+	}
+    }
+
+    @Test
+    public final void testLoad() throws IOException {
+	try (PointFile file = PointFile.open(path)) {
+	    Model model = new Model();
+	    file.loadInto(model);
+	    assertEquals(5, model.getCloud().size());
+	    assertEquals(Point.ORIGIN, model.getLeftmost());
+	    assertEquals(new Point(4, 4), model.getBounds());
+
+	    PointCloud cloud = new PointCloud();
+	    file.loadInto(cloud);
+	    assertEquals(5, cloud.size());
+
+	    StreamingHull stream = new StreamingHull();
+	    file.loadInto(stream);
+	    assertEquals(Arrays.asList(Point.ORIGIN, new Point(0, 4),
+				       new Point(4, 4), new Point(4, 0)),
+			 stream.getHull().getPoints());
+	}
+
+	// Written back from the cloud, the repeat is gone.
+	PointCloud cloud = new PointCloud();
+	cloud.add(1, 2);
+	cloud.add(3, 4);
+	PointFile.write(path, cloud);
+	try (PointFile file = PointFile.open(path)) {
+	    assertEquals(2, file.size());
+	    assertEquals(4, file.getY(1));
+	}
+    }
+
+    @Test
+    public final void testLoadBatches() throws IOException {
+	// More points than fit in a batch, on a diagonal.
+	int n = 20000;
+	int[] xs = new int[n];
+	for (int i = 0; i < n; i++) {
+	    xs[i] = i;
+	}
+	PointFile.write(path, xs, xs, n);
+
+	try (PointFile file = PointFile.open(path)) {
+	    Model model = new Model();
+	    model.addPoint(n, 0);
+	    file.loadInto(model);
+	    assertEquals(n + 1, model.getCloud().size());
+	    assertEquals(n - 1, model.getCloud().getY(n));
+	    assertEquals(new Point(n, n - 1), model.getBounds());
+	}
+    }
+
+    @Test
+    public final void testNegative() throws IOException {
+	PointFile.write(path, new int[] { 1, -1 }, new int[] { 1, 1 }, 2);
+	try (PointFile file = PointFile.open(path)) {
+	    PointCloud cloud = new PointCloud();
+	    try {
+		file.loadInto(cloud);
+		Assert.fail();
+	    } catch (IllegalArgumentException e) {
+		// Caught as expected, after the first point.
+		assertEquals(1, cloud.size());
+	    }
+	}
+    }
+
+    @Test
+    public final void testBadFiles() throws IOException {
+	// Not a point file at all.
+	Files.write(path, "x,y\n1,2\n".getBytes("US-ASCII"));
+	try {
+	    PointFile.open(path).close();
+	    Assert.fail();
+	} catch (IOException e) {
+	    // Caught as expected.
+	}
+
+	// More points declared than present.
+	ByteBuffer header = ByteBuffer.allocate(PointFile.HEADER_SIZE + 8)
+				      .order(ByteOrder.LITTLE_ENDIAN);
+	header.putInt(PointFile.MAGIC).putInt(PointFile.VERSION).putLong(2);
+	header.putInt(1).putInt(1);
+	Files.write(path, header.array());
+	try {
+	    PointFile.open(path).close();
+	    Assert.fail();
+	} catch (IOException e) {
+	    // Caught as expected.
+	}
+
+	// The magic reads as "JMPT".
+	assertEquals("JMPT", new String(Arrays.copyOf(header.array(), 4),
+					"US-ASCII"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.zinfidel.jarvis_march.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.*;
+
+public class TestPointTextReader {
+
+    // The file to write and read back.
+    private static Path path;
+
+    // The model to read into.
+    private static Model model;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    path = Files.createTempFile("points", ".csv");
+	    model = new Model();
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @After
+    public void tearDown() throws Exception {
+	Files.deleteIfExists(path);
+    }
+
+    @Test
+    public final void testFormats() throws IOException {
+	String text = "x,y\r\n"
+		    + "1,2\r\n"
+		    + "\n"
+		    + "# A comment.\n"
+		    + "  3 , 4\n"
+		    + "5 6\n"
+		    + "7\t8 \n"
+		    + "+9,10\n"
+		    + "1,2\n"
+		    + "2147483647,0";
+
+	PointCloud cloud = new PointCloud();
+	PointTextReader.read(buffer(text), cloud);
+
+	// The repeated point is skipped.
+	assertEquals(6, cloud.size());
+	assertEquals(new Point(1, 2), cloud.get(0));
+	assertEquals(new Point(3, 4), cloud.get(1));
+	assertEquals(new Point(5, 6), cloud.get(2));
+	assertEquals(new Point(7, 8), cloud.get(3));
+	assertEquals(new Point(9, 10), cloud.get(4));
+	assertEquals(new Point(Integer.MAX_VALUE, 0), cloud.get(5));
+    }
+
+    @Test
+    public final void testMalformed() {
+	String[] texts = { "1,2\n1\n", "1,2,3\n", "1,,2\n", "1;2\n",
+			   "1,2\n2147483648,0\n", "1,2\nx,y\n", "1,2x\n" };
+
+	for (String text : texts) {
+	    try {
+		PointTextReader.read(buffer(text), model);
+		Assert.fail(text);
+	    } catch (IOException e) {
+		// Caught as expected, before any point was added.
+		assertTrue(model.getPoints().isEmpty());
+	    }
+	}
+    }
+
+    @Test
+    public final void testNegative() throws IOException {
+	try {
+	    PointTextReader.read(buffer("1,1\n-1,2\n"), model);
+	    Assert.fail();
+	} catch (IllegalArgumentException e) {
+	    // Caught as expected, after the first point.
+	    assertEquals(1, model.getPoints().size());
+	}
+    }
+
+    @Test
+    public final void testFile() throws IOException {
+	// Enough lines for several chunks.
+	StringBuilder text = new StringBuilder("x,y\n");
+	int n = 1 << 20;
+	for (int i = 0; i < n; i++) {
+	    text.append(i % 1000).append(',').append(i / 1000).append('\n');
+	}
+	Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+	PointTextReader.read(path, model);
+	PointCloud cloud = model.getCloud();
+	assertEquals(n, cloud.size());
+	for (int i = 0; i < n; i += 997) {
+	    assertEquals(i % 1000, cloud.getX(i));
+	    assertEquals(i / 1000, cloud.getY(i));
+	}
+	assertEquals(Point.ORIGIN, model.getLeftmost());
+
+	// Malformed somewhere in the middle.
+	text.setCharAt(text.length() / 2, ';');
+	Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+	try {
+	    PointTextReader.read(path, new PointCloud());
+	    Assert.fail();
+	} catch (IOException e) {
+	    // Caught as expected.
+	}
+    }
+
+    /** @return The text as a buffer of bytes. */
+    private static ByteBuffer buffer(String text) {
+	return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.zinfidel.jarvis_march.monitoring;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.algorithm.MonotoneChainSolver;
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestHullMetrics {
+
+    @After
+    public void tearDown() throws Exception {
+	HullMetrics.unregister();
+    }
+
+    @Test
+    public final void testRegister() throws Exception {
+	MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	ObjectName name = new ObjectName(HullMetrics.OBJECT_NAME);
+
+	assertFalse(HullMetrics.isEnabled());
+	HullMetrics.register();
+	HullMetrics.register();
+	assertTrue(HullMetrics.isEnabled());
+	assertTrue(server.isRegistered(name));
+
+	// A triangle, solved once, and a line that fails.
+	Model model = new Model();
+	model.addPoint(Point.ORIGIN);
+	model.addPoint(new Point(0, 4));
+	model.addPoint(4, 0);
+	new MonotoneChainSolver(model).solve();
+	model.removePoint(new Point(4, 0));
+	try {
+	    new MonotoneChainSolver(model).solve();
+	} catch (RuntimeException e) {
+	    // Failed as expected.
+	}
+
+	HullMetrics metrics = HullMetrics.getInstance();
+	assertEquals(2L, server.getAttribute(name, "SolveCount"));
+	assertEquals(1, metrics.getFailedSolveCount());
+	assertEquals(5, metrics.getSolvedPointCount());
+	assertEquals(4, metrics.getMutationCount());
+	assertTrue(metrics.getSolveThroughput() > 0);
+	assertTrue(metrics.getSolveLatencyP99() >= metrics.getSolveLatencyP50());
+	assertTrue(metrics.getSolveLatencyP50() > 0);
+
+	long sum = 0;
+	for (long count : metrics.getMutationLatencyHistogram()) sum += count;
+	assertEquals(4, sum);
+
+	// A bulk load is counted apart from the mutations.
+	model.addPoints(new int[] { 1, 2, 3 }, new int[] { 1, 1, 1 }, 3);
+	assertEquals(4, metrics.getMutationCount());
+	assertEquals(1, metrics.getBulkLoadCount());
+	assertEquals(3L, server.getAttribute(name, "BulkLoadedPointCount"));
+	assertTrue(metrics.getBulkLoadLatencyPerPoint() > 0);
+
+	metrics.reset();
+	assertEquals(0, metrics.getSolveCount());
+	assertEquals(0, metrics.getMutationLatencyP50(), 0d);
+	assertEquals(0, metrics.getBulkLoadLatencyPerPoint(), 0d);
+
+	// Nothing is recorded once unregistered.
+	HullMetrics.unregister();
+	assertFalse(server.isRegistered(name));
+	model.addPoint(4, 0);
+	new MonotoneChainSolver(model).solve();
+	assertEquals(0, metrics.getSolveCount());
+	assertEquals(0, metrics.getMutationCount());
+    }
+
+    @Test
+    public final void testHistogram() {
+	assertEquals(0, LatencyHistogram.bucket(0));
+	assertEquals(0, LatencyHistogram.bucket(1));
+	assertEquals(1, LatencyHistogram.bucket(2));
+	assertEquals(2, LatencyHistogram.bucket(3));
+	assertEquals(10, LatencyHistogram.bucket(1024));
+	assertEquals(11, LatencyHistogram.bucket(1025));
+	assertEquals(63, LatencyHistogram.bucket(Long.MAX_VALUE));
+
+	LatencyHistogram histogram = new LatencyHistogram();
+	assertEquals(0, histogram.getPercentile(0.5));
+	for (int i = 0; i < 99; i++) {
+	    histogram.record(100);
+	}
+	histogram.record(1000000);
+
+	assertEquals(100, histogram.getCount());
+	assertEquals(128, histogram.getPercentile(0.5));
+	assertEquals(128, histogram.getPercentile(0.99));
+	assertEquals(1 << 20, histogram.getPercentile(1));
+	assertEquals((99 * 100 + 1000000) / 100d, histogram.getMean(), 1e-9);
+    }
+}
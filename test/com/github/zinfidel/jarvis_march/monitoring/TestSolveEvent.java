@@ -0,0 +1,54 @@
+package com.github.zinfidel.jarvis_march.monitoring;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.algorithm.ChanSolver;
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.Point;
+
+public class TestSolveEvent {
+
+    @Test
+    public final void testRecording() throws Exception {
+	Model model = new Model();
+	model.addPoint(Point.ORIGIN);
+	model.addPoint(new Point(0, 4));
+	model.addPoint(new Point(2, 2));
+	model.addPoint(new Point(4, 0));
+
+	Path file = Files.createTempFile("solve", ".jfr");
+	try (Recording recording = new Recording()) {
+	    recording.enable(SolveEvent.class);
+	    recording.start();
+	    new ChanSolver(model).solve();
+	    recording.stop();
+	    recording.dump(file);
+
+	    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+	    RecordedEvent solve = null;
+	    for (RecordedEvent event : events) {
+		if (event.getEventType().getName().equals(
+			"com.github.zinfidel.jarvis_march.Solve"))
+		    solve = event;
+	    }
+
+	    assertNotNull(solve);
+	    assertEquals("ChanSolver", solve.getString("solver"));
+	    assertEquals(4, solve.getInt("points"));
+	    assertEquals(3, solve.getInt("hullSize"));
+	    assertTrue(solve.getBoolean("solved"));
+	} finally {
+	    Files.deleteIfExists(file);
+	}
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.zinfidel.jarvis_march.visualization;
+
+import static org.junit.Assert.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.zinfidel.jarvis_march.geometry.Model;
+import com.github.zinfidel.jarvis_march.geometry.PointCloud;
+
+public class TestDensityRaster {
+
+    // The size of the images drawn to.
+    private static final int SIZE = 20;
+
+    private static PointCloud cloud;
+    private static BufferedImage image;
+
+    @Before
+    public void setUp() throws Exception {
+	try {
+	    cloud = new PointCloud();
+	    image = new BufferedImage(SIZE, SIZE,
+				      BufferedImage.TYPE_INT_ARGB_PRE);
+	} catch (Exception e) {
+	    throw e;
+	}
+    }
+
+    @Test
+    public final void testDraw() {
+	// A point, and points above and right of the image.
+	cloud.add(5, 5);
+	cloud.add(5, 25);
+	cloud.add(100, 5);
+	DensityRaster.draw(cloud, image, 1d, SIZE);
+
+	// The dot is flipped, and as wide as a drawn dot (3 on either side).
+	int covered = 0;
+	for (int y = 0; y < SIZE; y++) {
+	    for (int x = 0; x < SIZE; x++) {
+		boolean inDot = x >= 2 && x <= 8 && y >= 12 && y <= 18;
+		assertEquals(inDot, alpha(x, y) > 0);
+		if (inDot) covered++;
+	    }
+	}
+	assertEquals(49, covered);
+    }
+
+    @Test
+    public final void testDensity() {
+	// Two overlapping dots: the overlap is darker than either alone.
+	cloud.add(5, 5);
+	cloud.add(7, 5);
+	DensityRaster.draw(cloud, image, 1d, SIZE);
+
+	assertEquals(255, alpha(6, 15));
+	assertTrue(alpha(2, 15) > 0);
+	assertTrue(alpha(2, 15) < alpha(6, 15));
+	assertEquals(alpha(2, 15), alpha(10, 15));
+    }
+
+    @Test
+    public final void testCountRanges() {
+	for (int x = 0; x < SIZE; x++) {
+	    for (int y = 0; y < SIZE + 5; y++) {
+		cloud.add(x, y);
+	    }
+	}
+
+	// However the cloud is split, the partial counts add up the same.
+	int[] counts = DensityRaster.count(cloud, SIZE, SIZE, 1d, SIZE, 1);
+	assertArrayEquals(counts,
+			  DensityRaster.count(cloud, SIZE, SIZE, 1d, SIZE, 3));
+	assertArrayEquals(counts,
+			  DensityRaster.count(cloud, SIZE, SIZE, 1d, SIZE, 7));
+
+	// Points at y = 0 flip to just below the image, and those above
+	// y = SIZE to above it.
+	int total = 0;
+	for (int count : counts) {
+	    total += count;
+	}
+	assertEquals(SIZE * SIZE, total);
+    }
+
+    @Test
+    public final void testSpread() {
+	// A single count spreads to the square around it, clipped at the
+	// edges of the image.
+	int[] counts = new int[SIZE * SIZE];
+	counts[0] = 1;
+	counts[10 * SIZE + 10] = 2;
+	int[] sums = DensityRaster.spread(counts, SIZE, SIZE, 3);
+
+	assertEquals(1, sums[3 * SIZE + 3]);
+	assertEquals(0, sums[4 * SIZE]);
+	assertEquals(2, sums[7 * SIZE + 7]);
+	assertEquals(2, sums[13 * SIZE + 13]);
+	assertEquals(0, sums[14 * SIZE + 10]);
+	assertEquals(0, sums[10 * SIZE + 6]);
+
+	// Random counts, on an image wider than a strip of columns, against
+	// summing up each square in full.
+	int width = 300;
+	int rows = 40;
+	int half = 2;
+	counts = new int[width * rows];
+	Random random = new Random(42);
+	for (int i = 0; i < counts.length; i++) {
+	    counts[i] = random.nextInt(4);
+	}
+	sums = DensityRaster.spread(counts, width, rows, half);
+
+	for (int y = 0; y < rows; y++) {
+	    for (int x = 0; x < width; x++) {
+		int sum = 0;
+		for (int dy = -half; dy <= half; dy++) {
+		    for (int dx = -half; dx <= half; dx++) {
+			int ox = x + dx;
+			int oy = y + dy;
+			if (ox >= 0 && ox < width && oy >= 0 && oy < rows)
+			    sum += counts[oy * width + ox];
+		    }
+		}
+		assertEquals(sum, sums[y * width + x]);
+	    }
+	}
+    }
+
+    @Test
+    public final void testPanelThreshold() {
+	Model model = new Model();
+	model.addPoint(10, 10);
+	GeometryPanel panel = new GeometryPanel();
+	panel.setModel(model);
+	panel.setSize(SIZE * 2, SIZE * 2);
+
+	// Only the square dot of the raster reaches the corner of the dot.
+	panel.setRasterThreshold(1);
+	assertEquals(0xFFFFFF, paint(panel).getRGB(13, 27) & 0xFFFFFF);
+	panel.setRasterThreshold(0);
+	assertTrue((paint(panel).getRGB(13, 27) & 0xFF) < 0xFF);
+    }
+
+    /** @return The alpha of a pixel of the image. */
+    private static int alpha(int x, int y) {
+	return image.getRGB(x, y) >>> 24;
+    }
+
+    /** @return An image of the panel. */
+    private static BufferedImage paint(GeometryPanel panel) {
+	BufferedImage painted = new BufferedImage(
+		panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+	Graphics2D g = painted.createGraphics();
+	try {
+	    panel.paint(g);
+	} finally {
+	    g.dispose();
+	}
+	return painted;
+    }
+}